@@ -0,0 +1,222 @@
+/*
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, NCSA.  All rights reserved.
+ *
+ * Developed by:
+ * The Automated Learning Group
+ * University of Illinois at Urbana-Champaign
+ * http://www.seasr.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal with the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ *
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimers.
+ *
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimers in
+ * the documentation and/or other materials provided with the distribution.
+ *
+ * Neither the names of The Automated Learning Group, University of
+ * Illinois at Urbana-Champaign, nor the names of its contributors may
+ * be used to endorse or promote products derived from this Software
+ * without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+
+/**
+ * Deterministic input data shared by the benchmarks
+ */
+public abstract class BenchmarkData {
+
+    public static final long SEED = 0x5EA5L;
+
+    private static final String[] VOCABULARY = {
+        "the", "of", "and", "to", "in", "a", "is", "that", "for", "it", "as", "was", "with", "be",
+        "by", "on", "not", "he", "this", "are", "or", "his", "from", "at", "which", "but", "have",
+        "an", "had", "they", "you", "were", "their", "one", "all", "we", "can", "her", "has",
+        "there", "been", "if", "more", "when", "will", "would", "who", "so", "no", "reading",
+        "generalizations", "relational", "conditional", "hopefulness", "agreed", "disabled",
+        "meetings", "caresses", "ponies", "national", "university", "illinois", "library",
+        "collection", "manuscript", "Shakespeare", "Elizabethan", "tragedy", "comedy", "sonnet",
+        "characters", "analysis", "readability", "syllables", "sentence", "paragraph", "chapter"
+    };
+
+    private static final String[] NON_ASCII_WORDS = {
+        "H\u00e4user", "na\u00efve", "caf\u00e9", "r\u00e9sum\u00e9", "Stra\u00dfe", "\u00fcberm\u00e4\u00dfig", "fa\u00e7ade", "jalape\u00f1o"
+    };
+
+    private static final String[] NON_WORDS = {
+        "1984", "e-mail", "x86_64", "C++", "3rd", "AT&T", "U.S.", "50%"
+    };
+
+    /**
+     * Generates words drawn from a fixed vocabulary (Zipf-like, frequent words first)
+     *
+     * @param count The number of words
+     * @param nonAsciiRatio The fraction of words containing non-ASCII letters
+     * @param nonWordRatio The fraction of tokens containing non-letters
+     * @return The words
+     */
+    public static String[] words(int count, double nonAsciiRatio, double nonWordRatio) {
+        Random rand = new Random(SEED);
+        String[] words = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            double p = rand.nextDouble();
+            if (p < nonWordRatio)
+                words[i] = NON_WORDS[rand.nextInt(NON_WORDS.length)];
+            else
+            if (p < nonWordRatio + nonAsciiRatio)
+                words[i] = NON_ASCII_WORDS[rand.nextInt(NON_ASCII_WORDS.length)];
+            else
+                words[i] = VOCABULARY[zipf(rand, VOCABULARY.length)];
+        }
+
+        return words;
+    }
+
+    /**
+     * Generates English-like text made of sentences of vocabulary words
+     *
+     * @param nChars The (approximate) number of characters
+     * @return The text
+     */
+    public static String text(int nChars) {
+        Random rand = new Random(SEED);
+        StringBuilder sb = new StringBuilder(nChars + 64);
+        String[] punctuation = { ".", ".", ".", "?", "!", ";" };
+
+        while (sb.length() < nChars) {
+            int sentenceLength = 5 + rand.nextInt(20);
+            for (int i = 0; i < sentenceLength; i++) {
+                String word = VOCABULARY[zipf(rand, VOCABULARY.length)];
+                if (i == 0)
+                    word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+                else
+                    sb.append(rand.nextInt(8) == 0 ? ", " : " ");
+                sb.append(word);
+            }
+            sb.append(punctuation[rand.nextInt(punctuation.length)]);
+            sb.append(rand.nextInt(6) == 0 ? "\n" : " ");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Generates an HTML page wrapping generated text in typical markup
+     * (head, scripts, styles, links, entities, comments)
+     *
+     * @param nChars The (approximate) number of characters of text
+     * @return The HTML page
+     */
+    public static String html(int nChars) {
+        String text = text(nChars);
+        StringBuilder sb = new StringBuilder(2 * nChars + 1024);
+
+        sb.append("<!DOCTYPE html PUBLIC \"-//W3C//DTD XHTML 1.0 Transitional//EN\">\n");
+        sb.append("<html><head><title>SEASR benchmark page</title>\n");
+        sb.append("<style type=\"text/css\">body { font-family: serif; } p { margin: 1em; }</style>\n");
+        sb.append("<script type=\"text/javascript\">var x = 1 < 2 && 3 > 2; document.write('<b>hi</b>');</script>\n");
+        sb.append("</head><body>\n<!-- generated content -->\n<div id=\"content\">\n");
+
+        for (String paragraph : text.split("\n")) {
+            sb.append("<p class=\"para\">");
+            int nWords = 0;
+            for (String word : paragraph.split(" ")) {
+                if (++nWords % 17 == 0)
+                    sb.append("<a href=\"http://www.seasr.org/").append(nWords).append("\">").append(word).append("</a>");
+                else
+                if (nWords % 23 == 0)
+                    sb.append("<em>").append(word).append("</em>&nbsp;&amp;");
+                else
+                    sb.append(word);
+                sb.append(' ');
+            }
+            sb.append("</p>\n");
+        }
+
+        sb.append("</div></body></html>\n");
+
+        return sb.toString();
+    }
+
+    /**
+     * Generates an XML document containing generated text and numeric character references,
+     * some of which are invalid in XML (&amp;#1; - &amp;#8;, &amp;#11;, &amp;#12;, &amp;#14;, &amp;#15;)
+     *
+     * @param nChars The (approximate) number of characters of text
+     * @return The XML document
+     */
+    public static String xml(int nChars) {
+        String text = text(nChars);
+        StringBuilder sb = new StringBuilder(nChars + nChars / 4 + 256);
+        String[] refs = { "&#1;", "&#x8;", "&#11;", "&#xC;", "&#15;", "&#9;", "&#65;", "&#x20;" };
+        Random rand = new Random(SEED);
+
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<document>\n");
+        for (String sentence : text.split("\\. ")) {
+            sb.append("<s>").append(sentence);
+            if (rand.nextInt(4) == 0)
+                sb.append(refs[rand.nextInt(refs.length)]);
+            sb.append("</s>\n");
+        }
+        sb.append("</document>\n");
+
+        return sb.toString();
+    }
+
+    /**
+     * Generates the author lists of a document collection, as used to build co-authorship
+     * graphs: one to six authors per document, some authors being much more prolific than others
+     *
+     * @param nDocuments The number of documents
+     * @param nAuthors The number of distinct authors (approximate upper bound)
+     * @return The author list of each document
+     */
+    public static List<Vector<String>> authors(int nDocuments, int nAuthors) {
+        Random rand = new Random(SEED);
+        List<Vector<String>> documents = new ArrayList<Vector<String>>(nDocuments);
+
+        for (int d = 0; d < nDocuments; d++) {
+            int count = 1 + rand.nextInt(6);
+            Vector<String> authors = new Vector<String>(count);
+            for (int i = 0; i < count; i++) {
+                String author = "Author " + zipf(rand, nAuthors);
+                if (!authors.contains(author))
+                    authors.add(author);
+            }
+            documents.add(authors);
+        }
+
+        return documents;
+    }
+
+    private static int zipf(Random rand, int n) {
+        // approximates a Zipf distribution by squaring a uniform variate
+        double u = rand.nextDouble();
+        return (int) (u * u * n);
+    }
+}
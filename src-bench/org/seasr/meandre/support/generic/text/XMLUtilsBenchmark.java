@@ -0,0 +1,124 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.transform.OutputKeys;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.seasr.meandre.support.generic.bench.BenchmarkData;
+import org.seasr.meandre.support.generic.io.DOMUtils;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Throughput of XMLUtils.stripNonValidXMLCharacters and of the XML text extraction
+ * of HTMLUtils on generated XML documents
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLUtilsBenchmark {
+
+    /* the approximate number of text characters in the document */
+    @Param({ "10000", "1000000" })
+    public int textSize;
+
+    private String _xml;
+    private byte[] _validXml;
+    private Document _document;
+
+    @Setup
+    public void setup() throws Exception {
+        _xml = BenchmarkData.xml(textSize);
+        _validXml = XMLUtils.stripNonValidXMLCharacters(_xml).getBytes("UTF-8");
+        _document = DOMUtils.createDocument(new ByteArrayInputStream(_validXml));
+    }
+
+    @Benchmark
+    public String stripNonValidXMLCharacters() {
+        return XMLUtils.stripNonValidXMLCharacters(_xml);
+    }
+
+    /* the former HTMLUtils.extractText(Document) path: serialize the document, then parse it as HTML */
+    @Benchmark
+    public String extractTextSerialized() throws Exception {
+        Properties outputProperties = new Properties();
+        outputProperties.setProperty(OutputKeys.ENCODING, "UTF-8");
+
+        return HTMLUtils.extractText(DOMUtils.getString(_document, outputProperties));
+    }
+
+    @Benchmark
+    public String extractTextFromDocument() throws Exception {
+        return HTMLUtils.extractText(_document);
+    }
+
+    /* the former XMLTextContentHandler path: build the document, then extract its text */
+    @Benchmark
+    public String extractTextParseDocument() throws Exception {
+        return HTMLUtils.extractText(DOMUtils.createDocument(new ByteArrayInputStream(_validXml)));
+    }
+
+    @Benchmark
+    public String extractXMLText() throws SAXException, IOException {
+        return HTMLUtils.extractXMLText(new ByteArrayInputStream(_validXml));
+    }
+}
@@ -0,0 +1,126 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text.analytics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.seasr.meandre.support.generic.bench.BenchmarkData;
+
+import edu.uci.ics.jung.algorithms.importance.AbstractRanker;
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * Running time of the exact and sampled betweenness centrality on co-authorship graphs
+ * built by AnalyticsUtils.buildGraph
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BetweennessBenchmark {
+
+    /* the graph for the exact computation, which does not depend on the number of sources */
+    @State(Scope.Benchmark)
+    public static class ExactState {
+
+        /* the number of documents (the graphs have about half as many authors) */
+        @Param({ "1000", "10000" })
+        public int nDocuments;
+
+        Graph _graph;
+
+        @Setup
+        public void setup() {
+            _graph = buildGraph(nDocuments);
+        }
+    }
+
+    /* the graph and the number of sources for the sampled computation */
+    @State(Scope.Benchmark)
+    public static class SampledState {
+
+        /* the number of documents (the graphs have about half as many authors) */
+        @Param({ "1000", "10000" })
+        public int nDocuments;
+
+        /* the number of sources sampled by the approximate computation */
+        @Param({ "64", "256" })
+        public int nSources;
+
+        Graph _graph;
+
+        @Setup
+        public void setup() {
+            _graph = buildGraph(nDocuments);
+        }
+    }
+
+    private final int _nThreads = Runtime.getRuntime().availableProcessors();
+
+    @Benchmark
+    public AbstractRanker computeBetweenness(ExactState state) {
+        return AnalyticsUtils.computeBetweenness(state._graph, _nThreads);
+    }
+
+    @Benchmark
+    public AbstractRanker computeApproximateBetweenness(SampledState state) {
+        return AnalyticsUtils.computeApproximateBetweenness(state._graph, state.nSources, BenchmarkData.SEED, _nThreads);
+    }
+
+    private static Graph buildGraph(int nDocuments) {
+        return AnalyticsUtils.buildGraph(BenchmarkData.authors(nDocuments, nDocuments / 2), "author");
+    }
+}
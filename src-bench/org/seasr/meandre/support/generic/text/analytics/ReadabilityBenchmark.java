@@ -0,0 +1,110 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text.analytics;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.seasr.meandre.support.generic.bench.BenchmarkData;
+
+/**
+ * Throughput of the Flesch readability computation on generated text
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadabilityBenchmark {
+
+    /* the approximate number of characters of text */
+    @Param({ "10000", "1000000" })
+    public int textSize;
+
+    private String _text;
+    private int _nThreads;
+    private ExecutorService _executor;
+
+    @Setup
+    public void setup() {
+        _text = BenchmarkData.text(textSize);
+        _nThreads = Runtime.getRuntime().availableProcessors();
+        _executor = Executors.newFixedThreadPool(_nThreads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        _executor.shutdown();
+    }
+
+    @Benchmark
+    public ReadabilityMeasure computeFleschReadabilityMeasure() {
+        return ReadabilityMeasure.computeFleschReadabilityMeasure(_text);
+    }
+
+    @Benchmark
+    public ReadabilityMeasure computeFleschReadabilityMeasureFromReader() throws IOException {
+        return ReadabilityMeasure.computeFleschReadabilityMeasure(new StringReader(_text));
+    }
+
+    @Benchmark
+    public ReadabilityMeasure computeFleschReadabilityMeasureParallel() throws InterruptedException {
+        return ReadabilityMeasure.computeFleschReadabilityMeasure(_text, _executor, _nThreads);
+    }
+}
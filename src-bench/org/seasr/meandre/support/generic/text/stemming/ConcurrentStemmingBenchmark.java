@@ -0,0 +1,138 @@
+/**
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, Board of Trustees-University of Illinois.
+ * All rights reserved.
+ *
+ * Developed by:
+ *
+ * Automated Learning Group
+ * National Center for Supercomputing Applications
+ * http://www.seasr.org
+ *
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal with the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimers.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimers in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the names of Automated Learning Group, The National Center for
+ *    Supercomputing Applications, or University of Illinois, nor the names of
+ *    its contributors may be used to endorse or promote products derived from
+ *    this Software without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+ * CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.text.stemming;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.seasr.meandre.support.generic.bench.BenchmarkData;
+
+/**
+ * Scalability of a single ConcurrentStemmingService shared by several
+ * threads.  Compare the throughput reported for 1, 2, 4 and all available
+ * threads: since every thread stems with its own stemmer, the throughput
+ * should grow linearly with the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentStemmingBenchmark
+{
+
+	private String[] tokens;
+	private ConcurrentStemmingService porter;
+	private ConcurrentStemmingService snowball;
+
+	@Setup
+	public void setup()
+	{
+		tokens = BenchmarkData.words(10000, 0.01, 0.05);
+		porter = ConcurrentStemmingService.newPorterStemmingService();
+		snowball = ConcurrentStemmingService.newSnowballStemmingService("english");
+	}
+
+	@Benchmark
+	@Threads(1)
+	public int porter1()
+	{
+		return stem(porter);
+	}
+
+	@Benchmark
+	@Threads(2)
+	public int porter2()
+	{
+		return stem(porter);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public int porter4()
+	{
+		return stem(porter);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public int porterMax()
+	{
+		return stem(porter);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public int snowball1()
+	{
+		return stem(snowball);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public int snowballMax()
+	{
+		return stem(snowball);
+	}
+
+	private int stem(StemmingService stemmer)
+	{
+		int n = 0;
+		for (String token : tokens) {
+			n += stemmer.getStem(token).length();
+		}
+		return n;
+	}
+
+}
@@ -0,0 +1,139 @@
+/**
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, Board of Trustees-University of Illinois.
+ * All rights reserved.
+ *
+ * Developed by:
+ *
+ * Automated Learning Group
+ * National Center for Supercomputing Applications
+ * http://www.seasr.org
+ *
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal with the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimers.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimers in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the names of Automated Learning Group, The National Center for
+ *    Supercomputing Applications, or University of Illinois, nor the names of
+ *    its contributors may be used to endorse or promote products derived from
+ *    this Software without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+ * CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.text.stemming;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.seasr.meandre.support.generic.bench.BenchmarkData;
+
+/**
+ * Compares StringUtilities.isAllLetters against the previous implementation
+ * (toCharArray + Character.isLetter) and a regular expression.
+ *
+ * Every benchmark method classifies the same 10,000 tokens and returns the
+ * number of all-letter tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsAllLettersBenchmark
+{
+
+	private static final Pattern LETTERS = Pattern.compile("\\p{L}*");
+
+	/* fraction of tokens containing non-ASCII letters */
+	@Param({ "0.0", "0.1" })
+	public double nonAsciiRatio;
+
+	private String[] tokens;
+
+	@Setup
+	public void setup()
+	{
+		tokens = BenchmarkData.words(10000, nonAsciiRatio, 0.05);
+	}
+
+	@Benchmark
+	public int tableDriven()
+	{
+		int n = 0;
+		for (String token : tokens) {
+			if (StringUtilities.isAllLetters(token)) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	@Benchmark
+	public int toCharArray()
+	{
+		int n = 0;
+		for (String token : tokens) {
+			if (isAllLettersToCharArray(token)) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	@Benchmark
+	public int regex()
+	{
+		int n = 0;
+		for (String token : tokens) {
+			if (LETTERS.matcher(token).matches()) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	/* the implementation StringUtilities.isAllLetters replaced */
+	private static boolean isAllLettersToCharArray(String text)
+	{
+		char[] ch = text.toCharArray();
+		for (char c : ch) {
+			if (!Character.isLetter(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
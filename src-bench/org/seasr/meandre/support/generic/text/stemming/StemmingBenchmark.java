@@ -0,0 +1,133 @@
+/**
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, Board of Trustees-University of Illinois.
+ * All rights reserved.
+ *
+ * Developed by:
+ *
+ * Automated Learning Group
+ * National Center for Supercomputing Applications
+ * http://www.seasr.org
+ *
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal with the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimers.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimers in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the names of Automated Learning Group, The National Center for
+ *    Supercomputing Applications, or University of Illinois, nor the names of
+ *    its contributors may be used to endorse or promote products derived from
+ *    this Software without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+ * CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.text.stemming;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.seasr.meandre.support.generic.bench.BenchmarkData;
+
+/**
+ * Single-threaded throughput of the stemming services.  Every benchmark
+ * method stems the same 10,000 tokens.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StemmingBenchmark
+{
+
+	private String[] tokens;
+	private String[] batch;
+
+	private PorterStemmingService porter;
+	private SnowballStemmingService snowball;
+	private CachingStemmingService cachingPorter;
+
+	@Setup
+	public void setup()
+	{
+		tokens = BenchmarkData.words(10000, 0.01, 0.05);
+		batch = new String[tokens.length];
+
+		porter = new PorterStemmingService();
+		snowball = new SnowballStemmingService("english");
+		cachingPorter = new CachingStemmingService(new PorterStemmingService());
+	}
+
+	@Benchmark
+	public int porterGetStem()
+	{
+		int n = 0;
+		for (String token : tokens) {
+			n += porter.getStem(token).length();
+		}
+		return n;
+	}
+
+	@Benchmark
+	public String[] porterStemAll()
+	{
+		System.arraycopy(tokens, 0, batch, 0, tokens.length);
+		return porter.stemAll(batch);
+	}
+
+	@Benchmark
+	public int snowballGetStem()
+	{
+		int n = 0;
+		for (String token : tokens) {
+			n += snowball.getStem(token).length();
+		}
+		return n;
+	}
+
+	@Benchmark
+	public int cachingPorterGetStem()
+	{
+		int n = 0;
+		for (String token : tokens) {
+			n += cachingPorter.getStem(token).length();
+		}
+		return n;
+	}
+
+	@Benchmark
+	public Object snowballServiceCreation()
+	{
+		return new SnowballStemmingService("english");
+	}
+
+}
@@ -42,8 +42,11 @@
 
 package org.seasr.meandre.support.generic.io.handlers;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.ContentHandler;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.net.URLConnection;
 
 import org.seasr.meandre.support.generic.text.PDFUtils;
@@ -58,9 +61,25 @@ public class PDFContentHandler extends ContentHandler {
 
     @Override
     public Object getContent(URLConnection connection) throws IOException {
+        URL url = connection.getURL();
+
         try {
-            return PDFUtils.getDocument(connection.getInputStream(),
-                    connection.getURL().toString(), null);
+            // local files are read in place instead of being copied
+            if (url.getProtocol().equalsIgnoreCase("file")) {
+                File file = null;
+                try {
+                    file = new File(url.toURI());
+                }
+                catch (URISyntaxException e) { }
+                catch (IllegalArgumentException e) { }
+
+                if (file != null && file.isFile()) {
+                    connection.getInputStream().close();
+                    return PDFUtils.getDocument(file);
+                }
+            }
+
+            return PDFUtils.getDocument(connection.getInputStream(), url.toString(), null);
         }
         catch (COSLoadException e) {
             throw new IOException(e.toString());
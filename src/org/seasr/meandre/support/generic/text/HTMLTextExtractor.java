@@ -0,0 +1,297 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A writer that extracts the text of the HTML written to it, producing the same text as
+ * htmlparser's StringBean (see {@link HTMLUtils#extractText(String)}) but without building
+ * the HTML document or its nodes in memory.  The text is written to the output writer as
+ * the HTML is lexed, so the memory used does not depend on the size of the document.
+ *
+ * Call {@link #finish()} (or {@link #close()}) once all the HTML was written.
+ */
+public class HTMLTextExtractor extends Writer {
+
+    private static final int TEXT = 0, TAG_START = 1, TAG = 2, COMMENT = 3, RAW_TEXT = 4;
+
+    /* text is passed on in chunks of about this size */
+    private static final int MAX_TEXT_LENGTH = 8192;
+    /* only the start of the tags is kept, to find their names */
+    private static final int MAX_TAG_LENGTH = 256;
+    /* the maximum length of a character reference, such as &thetasym; or &#x10FFFF; */
+    private static final int MAX_REFERENCE_LENGTH = 10;
+
+    private final Writer _out;
+    private final HTMLTextFlow _flow;
+    private final StringBuilder _text = new StringBuilder(MAX_TEXT_LENGTH + 16);
+    private final StringBuilder _tag = new StringBuilder(MAX_TAG_LENGTH);
+    private int _state = TEXT;
+    private char _quote;            // the quote of the attribute value being read, or 0
+    private boolean _afterEquals;   // true if an attribute value is expected
+    private char _tagLast;          // the last non-whitespace character of the tag
+    private int _dashes;            // the number of consecutive dashes read in a comment
+    private String _rawEnd;         // the end tag of the script or style being skipped, lowercase
+    private int _rawMatched;        // the number of characters of _rawEnd matched so far
+    private boolean _rawEndTag;     // true if the tag being read may end the script or style
+
+    /**
+     * Creates an extractor
+     *
+     * @param out The writer receiving the text
+     */
+    public HTMLTextExtractor(Writer out) {
+        _out = out;
+        _flow = new HTMLTextFlow(out);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = off, end = off + len; i < end; i++)
+            process(cbuf[i]);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        process((char) c);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off, end = off + len; i < end; i++)
+            process(str.charAt(i));
+    }
+
+    /**
+     * Writes out the text extracted so far (text that may continue is kept)
+     */
+    @Override
+    public void flush() throws IOException {
+        _flow.flush();
+    }
+
+    /**
+     * Completes the extraction, writing out the remaining text; the output writer is not closed
+     *
+     * @throws IOException Thrown if the text cannot be written
+     */
+    public void finish() throws IOException {
+        if (_state == TAG_START)
+            _text.append('<');
+        if (_state == TEXT || _state == TAG_START)
+            flushText();
+
+        _state = TEXT;
+        _flow.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        _out.close();
+    }
+
+    private void process(char c) throws IOException {
+        switch (_state) {
+            case TEXT:
+                if (c == '<')
+                    _state = TAG_START;
+                else {
+                    _text.append(c);
+                    if (_text.length() >= MAX_TEXT_LENGTH)
+                        flushLongText();
+                }
+                break;
+
+            case TAG_START:
+                if (Character.isLetter(c) || c == '/' || c == '!' || c == '?') {
+                    flushText();
+                    startTag(c);
+                }
+                else {
+                    // not markup
+                    _text.append('<');
+                    _state = TEXT;
+                    process(c);
+                }
+                break;
+
+            case TAG:
+                readTag(c);
+                break;
+
+            case COMMENT:
+                if (c == '>' && _dashes >= 2)
+                    _state = TEXT;
+                _dashes = (c == '-') ? _dashes + 1 : 0;
+                break;
+
+            case RAW_TEXT:
+                if (Character.toLowerCase(c) == _rawEnd.charAt(_rawMatched)) {
+                    if (++_rawMatched == _rawEnd.length()) {
+                        // the rest of the tag is read as any other tag
+                        _tag.setLength(0);
+                        _tag.append(_rawEnd, 1, _rawEnd.length());
+                        _tagLast = c;
+                        _quote = 0;
+                        _afterEquals = false;
+                        _rawEndTag = true;
+                        _state = TAG;
+                    }
+                }
+                else
+                    _rawMatched = (c == '<') ? 1 : 0;
+                break;
+        }
+    }
+
+    private void startTag(char c) {
+        _tag.setLength(0);
+        _tag.append(c);
+        _tagLast = c;
+        _quote = 0;
+        _afterEquals = false;
+        _rawEndTag = false;
+        _state = TAG;
+    }
+
+    private void readTag(char c) throws IOException {
+        if (_quote != 0) {
+            if (c == _quote)
+                _quote = 0;
+        }
+        else
+        if (c == '>') {
+            endOfTag();
+            return;
+        }
+        else
+        if ((c == '"' || c == '\'') && _afterEquals)
+            _quote = c;
+
+        boolean isWhitespace = Character.isWhitespace(c);
+        if (_quote == 0)
+            _afterEquals = (c == '=') || (_afterEquals && isWhitespace);
+        if (!isWhitespace)
+            _tagLast = c;
+
+        if (_tag.length() < MAX_TAG_LENGTH) {
+            _tag.append(c);
+            if (_tag.length() == 3 && _tag.charAt(0) == '!' && _tag.charAt(1) == '-' && c == '-') {
+                _dashes = 0;
+                _state = COMMENT;
+            }
+        }
+    }
+
+    private void endOfTag() throws IOException {
+        _state = TEXT;
+
+        char first = _tag.charAt(0);
+        if (first == '!' || first == '?')
+            return;   // declaration or processing instruction
+
+        if (first == '/') {
+            String name = getTagName(1);
+            if (_rawEndTag && !name.equalsIgnoreCase(_rawEnd.substring(2))) {
+                // not the end of the script or style after all
+                _rawMatched = 0;
+                _state = RAW_TEXT;
+                return;
+            }
+            _flow.endTag(name);
+        }
+        else {
+            String name = getTagName(0);
+            _flow.startTag(name);
+
+            if (_tagLast != '/' && (name.equalsIgnoreCase("SCRIPT") || name.equalsIgnoreCase("STYLE"))) {
+                _rawEnd = "</" + name.toLowerCase();
+                _rawMatched = 0;
+                _state = RAW_TEXT;
+            }
+        }
+    }
+
+    private String getTagName(int start) {
+        int end = start, length = _tag.length();
+        while (end < length) {
+            char c = _tag.charAt(end);
+            if (Character.isWhitespace(c) || c == '/')
+                break;
+            end++;
+        }
+
+        return _tag.substring(start, end);
+    }
+
+    private void flushText() throws IOException {
+        if (_text.length() > 0) {
+            _flow.text(_text.toString(), true);
+            _text.setLength(0);
+        }
+    }
+
+    /**
+     * Passes on most of a long run of text, keeping a character reference that may not
+     * be complete yet
+     */
+    private void flushLongText() throws IOException {
+        int length = _text.length();
+        int split = length;
+        for (int i = length - 1; i >= length - MAX_REFERENCE_LENGTH; i--) {
+            char c = _text.charAt(i);
+            if (c == ';')
+                break;
+            if (c == '&') {
+                split = i;
+                break;
+            }
+        }
+
+        _flow.text(_text.substring(0, split), true);
+        _text.delete(0, split);
+    }
+}
@@ -0,0 +1,222 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.htmlparser.util.Translate;
+
+/**
+ * Turns a sequence of HTML tags and text into plain text the way htmlparser's StringBean does:
+ * script and style content is dropped, entities are decoded, whitespace is collapsed except
+ * inside &lt;pre&gt;, non-breaking spaces become spaces, and the tags that break the flow
+ * of text start a new line.  The text is written out as it is produced.
+ */
+class HTMLTextFlow {
+
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    /** The tags for which htmlparser's Tag.breaksFlow() is true */
+    private static final Set<String> BREAK_TAGS = new HashSet<String>();
+    static {
+        String[] tags = {
+            "BLOCKQUOTE", "BODY", "BR", "CENTER", "DD", "DIR", "DIV", "DL", "DT", "FORM",
+            "H1", "H2", "H3", "H4", "H5", "H6", "HEAD", "HR", "HTML", "ISINDEX", "LI", "MENU",
+            "NOFRAMES", "OL", "P", "PRE", "TD", "TH", "TITLE", "UL"
+        };
+        for (String tag : tags)
+            BREAK_TAGS.add(tag);
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer _out;
+    private final StringBuilder _buffer = new StringBuilder(BUFFER_SIZE + 256);
+    private boolean _isScript, _isStyle, _isPre;
+    private int _collapseState;         // 0: line start, 1: pending space, 2: in word
+    private long _nWritten;
+    private char _last, _beforeLast;    // the last characters written, to detect a trailing newline
+
+    HTMLTextFlow(Writer out) {
+        _out = out;
+    }
+
+    void startTag(String name) throws IOException {
+        if (name.equalsIgnoreCase("PRE"))
+            _isPre = true;
+        else
+        if (name.equalsIgnoreCase("SCRIPT"))
+            _isScript = true;
+        else
+        if (name.equalsIgnoreCase("STYLE"))
+            _isStyle = true;
+
+        if (BREAK_TAGS.contains(name.toUpperCase()))
+            carriageReturn();
+    }
+
+    void endTag(String name) {
+        if (name.equalsIgnoreCase("PRE"))
+            _isPre = false;
+        else
+        if (name.equalsIgnoreCase("SCRIPT"))
+            _isScript = false;
+        else
+        if (name.equalsIgnoreCase("STYLE"))
+            _isStyle = false;
+    }
+
+    /**
+     * Adds the text of a text node
+     *
+     * @param text The text
+     * @param encoded True if the text may contain character references to decode
+     *                (ignored inside &lt;pre&gt;, whose text is kept as is)
+     * @throws IOException Thrown if the text cannot be written
+     */
+    void text(String text, boolean encoded) throws IOException {
+        if (_isScript || _isStyle)
+            return;
+
+        if (_isPre) {
+            append(text, 0, text.length());
+            return;
+        }
+
+        if (encoded && text.indexOf('&') >= 0)
+            text = Translate.decode(text);
+
+        collapse(text.replace('\u00a0', ' '));
+    }
+
+    /**
+     * Writes out the buffered text
+     *
+     * @throws IOException Thrown if the text cannot be written
+     */
+    void flush() throws IOException {
+        if (_buffer.length() > 0) {
+            _out.append(_buffer);
+            _buffer.setLength(0);
+        }
+        _out.flush();
+    }
+
+    private void collapse(String text) throws IOException {
+        int length = text.length();
+        int start = -1;   // the start of the current run of non-whitespace characters
+
+        for (int i = 0; i < length; i++) {
+            switch (text.charAt(i)) {
+                // see HTML specification section 9.1 White space
+                case ' ':
+                case '\t':
+                case '\f':
+                case '\u200B':
+                case '\r':
+                case '\n':
+                    if (start >= 0) {
+                        append(text, start, i);
+                        start = -1;
+                    }
+                    if (_collapseState != 0)
+                        _collapseState = 1;
+                    break;
+
+                default:
+                    if (start < 0) {
+                        if (_collapseState == 1)
+                            append(' ');
+                        _collapseState = 2;
+                        start = i;
+                    }
+            }
+        }
+
+        if (start >= 0)
+            append(text, start, length);
+    }
+
+    private void carriageReturn() throws IOException {
+        if (_nWritten >= NEWLINE.length() && !endsWithNewline())
+            append(NEWLINE, 0, NEWLINE.length());
+
+        _collapseState = 0;
+    }
+
+    private boolean endsWithNewline() {
+        int n = NEWLINE.length();
+        return (NEWLINE.charAt(n - 1) == _last) && (n == 1 || NEWLINE.charAt(0) == _beforeLast);
+    }
+
+    private void append(char c) throws IOException {
+        _buffer.append(c);
+        _beforeLast = _last;
+        _last = c;
+        _nWritten++;
+
+        if (_buffer.length() >= BUFFER_SIZE)
+            flushBuffer();
+    }
+
+    private void append(String text, int start, int end) throws IOException {
+        if (start == end)
+            return;
+
+        _buffer.append(text, start, end);
+        _beforeLast = (end - start > 1) ? text.charAt(end - 2) : _last;
+        _last = text.charAt(end - 1);
+        _nWritten += end - start;
+
+        if (_buffer.length() >= BUFFER_SIZE)
+            flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        _out.append(_buffer);
+        _buffer.setLength(0);
+    }
+}
@@ -42,10 +42,17 @@
 
 package org.seasr.meandre.support.generic.text;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
-import java.util.Properties;
+import java.io.Writer;
+import java.nio.charset.Charset;
 
-import javax.xml.transform.OutputKeys;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
 import javax.xml.transform.TransformerException;
 
 import org.htmlparser.Parser;
@@ -53,6 +60,9 @@ import org.htmlparser.beans.StringBean;
 import org.htmlparser.util.ParserException;
 import org.seasr.meandre.support.generic.io.DOMUtils;
 import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
 /**
  * @author Boris Capitanu
@@ -89,7 +99,54 @@ public abstract class HTMLUtils {
     }
 
     /**
-     * Extracts text from a DOM Document using UTF-8 encoding
+     * Extracts text from an HTML document as it is read, writing the text as it is extracted.
+     * The text is the same as the one returned by {@link #extractText(String)}, but the document
+     * is never held in memory.
+     *
+     * @param reader The reader supplying the HTML document
+     * @param writer The writer receiving the text
+     * @throws IOException Thrown if a problem occurs while reading the document or writing the text
+     */
+    public static void extractText(Reader reader, Writer writer) throws IOException {
+        HTMLTextExtractor extractor = new HTMLTextExtractor(writer);
+        char[] buffer = new char[8192];
+
+        for (int n; (n = reader.read(buffer)) != -1; )
+            extractor.write(buffer, 0, n);
+
+        extractor.finish();
+    }
+
+    /**
+     * Extracts text from an HTML document as it is read, writing the text as it is extracted
+     *
+     * @param in The stream supplying the HTML document
+     * @param encoding The encoding
+     * @param writer The writer receiving the text
+     * @throws IOException Thrown if a problem occurs while reading the document or writing the text
+     */
+    public static void extractText(InputStream in, String encoding, Writer writer) throws IOException {
+        extractText(new InputStreamReader(in, encoding), writer);
+    }
+
+    /**
+     * Extracts text from an HTML document as it is read
+     *
+     * @param reader The reader supplying the HTML document
+     * @return The text extracted from the HTML document
+     * @throws IOException Thrown if a problem occurs while reading the document
+     */
+    public static String extractText(Reader reader) throws IOException {
+        StringWriter writer = new StringWriter();
+        extractText(reader, writer);
+
+        return writer.toString();
+    }
+
+    /**
+     * Extracts text from a DOM Document.  The text is read directly from the text nodes
+     * of the document, which is no longer serialized and parsed again; the exceptions
+     * are kept in the signature for compatibility.
      *
      * @param document The document
      * @return The extracted text
@@ -98,25 +155,95 @@ public abstract class HTMLUtils {
      * @throws UnsupportedEncodingException
      */
     public static String extractText(Document document) throws ParserException, TransformerException, UnsupportedEncodingException {
-        return extractText(document, "UTF-8");
+        StringWriter writer = new StringWriter();
+        try {
+            extractText(document, writer);
+        }
+        catch (IOException e) {
+            // a StringWriter does not throw
+            throw new RuntimeException(e);
+        }
+
+        return writer.toString();
     }
 
     /**
      * Extracts text from a DOM Document
      *
      * @param document The document
-     * @param encoding The encoding
+     * @param encoding Not used, the document is no longer serialized
      * @return The extracted text
      * @throws ParserException
      * @throws TransformerException
      * @throws UnsupportedEncodingException
+     * @deprecated The encoding is ignored; use {@link #extractText(Document)}
      */
+    @Deprecated
     public static String extractText(Document document, String encoding)
         throws ParserException, TransformerException, UnsupportedEncodingException {
 
-        Properties outputProperties = new Properties();
-        outputProperties.setProperty(OutputKeys.ENCODING, encoding);
+        return extractText(document);
+    }
+
+    /**
+     * Extracts the text of a DOM node and its descendants in a single pass over the tree
+     *
+     * @param node The node (usually a Document or an Element)
+     * @param writer The writer receiving the text
+     * @throws IOException Thrown if a problem occurs while writing the text
+     */
+    public static void extractText(Node node, Writer writer) throws IOException {
+        XMLTextExtractor.extract(node, writer);
+    }
+
+    /**
+     * Extracts text from an XML document while it is parsed with SAX, without building
+     * a DOM Document for it
+     *
+     * @param in The stream supplying the XML document
+     * @param encoding The encoding
+     * @param writer The writer receiving the text
+     * @throws SAXException Thrown if the XML document is not well formed
+     * @throws IOException Thrown if a problem occurs while reading the document or writing the text
+     */
+    public static void extractXMLText(InputStream in, String encoding, Writer writer) throws SAXException, IOException {
+        SAXParser parser;
+        try {
+            parser = DOMUtils.SAX_FACT.newSAXParser();
+        }
+        catch (ParserConfigurationException e) {
+            throw new SAXException(e);
+        }
+
+        try {
+            // as for DOMUtils.createDocument, external DTDs are not fetched
+            parser.getXMLReader().setFeature(
+                    "http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        }
+        catch (SAXException e) { }
+
+        Reader reader = new InputStreamReader(in, Charset.forName(encoding));
+        try {
+            parser.parse(new InputSource(reader), new XMLTextExtractor(writer));
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Extracts text from an XML document using UTF-8 encoding while it is parsed with SAX,
+     * without building a DOM Document for it
+     *
+     * @param in The stream supplying the XML document
+     * @return The extracted text
+     * @throws SAXException Thrown if the XML document is not well formed
+     * @throws IOException Thrown if a problem occurs while reading the document
+     */
+    public static String extractXMLText(InputStream in) throws SAXException, IOException {
+        StringWriter writer = new StringWriter();
+        extractXMLText(in, "UTF-8", writer);
 
-        return extractText(DOMUtils.getString(document, outputProperties));
+        return writer.toString();
     }
 }
@@ -42,9 +42,21 @@
 
 package org.seasr.meandre.support.generic.text;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.seasr.meandre.support.generic.io.StreamUtils;
 
@@ -56,12 +68,22 @@ import de.intarsys.pdf.pd.PDPage;
 import de.intarsys.pdf.pd.PDPageNode;
 import de.intarsys.pdf.pd.PDPageTree;
 import de.intarsys.tools.locator.ByteArrayLocator;
+import de.intarsys.tools.locator.FileLocator;
+import de.intarsys.tools.locator.ILocator;
+import de.intarsys.tools.randomaccess.IRandomAccess;
+import de.intarsys.tools.randomaccess.RandomAccessFilter;
 
 /**
  * @author Boris Capitanu
  */
 public abstract class PDFUtils {
 
+    /** A reasonable size above which to spool PDF documents read from a stream to a temporary file */
+    public static final int DEFAULT_SPOOL_THRESHOLD = 4 * 1024 * 1024;
+
+    /** The largest spool threshold, bounded by the largest array the JVM can allocate */
+    public static final int MAX_SPOOL_THRESHOLD = Integer.MAX_VALUE - 9;
+
     /**
      * Extracts text from a PDF document
      *
@@ -75,7 +97,173 @@ public abstract class PDFUtils {
     }
 
     /**
-     * Creates a PDDocument from an InputStream
+     * Returns the number of pages of a PDF document
+     *
+     * @param pdfDocument The PDF document
+     * @return The number of pages
+     */
+    public static int getPageCount(PDDocument pdfDocument) {
+        return pdfDocument.getPageTree().getCount();
+    }
+
+    /**
+     * Extracts text from a range of pages of a PDF document
+     *
+     * @param pdfDocument The PDF document
+     * @param firstPage The number of the first page to extract (starting at 1)
+     * @param lastPage The number of the last page to extract (inclusive)
+     * @return The text extracted from the pages
+     */
+    public static String extractText(PDDocument pdfDocument, int firstPage, int lastPage) {
+        PDPageTree pageTree = pdfDocument.getPageTree();
+        checkPageRange(pageTree, firstPage, lastPage);
+
+        StringBuilder sb = new StringBuilder();
+        for (PageText pageText : getPageTexts(pdfDocument, firstPage, lastPage))
+            sb.append(pageText.getText());
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns the text of the pages of a PDF document, page by page.  Each page is interpreted
+     * only when the iterator reaches it, and the parsed content of the page is released once its
+     * text was extracted, so the whole text of the document is never held in memory.
+     *
+     * @param pdfDocument The PDF document
+     * @return The text of the pages, in page order
+     */
+    public static Iterable<PageText> getPageTexts(PDDocument pdfDocument) {
+        return getPageTexts(pdfDocument, 1, getPageCount(pdfDocument));
+    }
+
+    /**
+     * Returns the text of a range of pages of a PDF document, page by page.  Each page is
+     * interpreted only when the iterator reaches it, and the parsed content of the page is
+     * released once its text was extracted.
+     *
+     * @param pdfDocument The PDF document
+     * @param firstPage The number of the first page (starting at 1)
+     * @param lastPage The number of the last page (inclusive)
+     * @return The text of the pages, in page order
+     */
+    public static Iterable<PageText> getPageTexts(PDDocument pdfDocument, final int firstPage, final int lastPage) {
+        final PDPageTree pageTree = pdfDocument.getPageTree();
+        checkPageRange(pageTree, firstPage, lastPage);
+
+        return new Iterable<PageText>() {
+            public Iterator<PageText> iterator() {
+                return new PageTextIterator(pageTree.getPageAt(firstPage - 1), firstPage, lastPage);
+            }
+        };
+    }
+
+    /**
+     * Extracts text from a PDF document by interpreting its pages in parallel using a newly
+     * created thread pool.  The text is identical to the one returned by {@link #extractText(PDDocument)}.
+     *
+     * @param pdfDocument The PDF document
+     * @param nThreads The number of threads to use
+     * @return The text extracted from the PDF document
+     * @throws IOException Thrown if the document cannot be read
+     * @throws COSLoadException Thrown if the document cannot be parsed
+     * @throws InterruptedException Thrown if interrupted while waiting for the extraction
+     * @see #extractText(PDDocument, int, int, int)
+     */
+    public static String extractText(PDDocument pdfDocument, int nThreads)
+        throws IOException, COSLoadException, InterruptedException {
+
+        return extractText(pdfDocument, 1, getPageCount(pdfDocument), nThreads);
+    }
+
+    /**
+     * Extracts text from a range of pages of a PDF document by interpreting the pages in parallel
+     * using a newly created thread pool, and assembling their text in page order.
+     *
+     * The objects of a PDDocument are loaded lazily and are not safe to use from several
+     * threads, so each thread opens its own copy of the document from the locator of
+     * <code>pdfDocument</code> and takes the next page to extract from a shared counter.
+     * Changes made to <code>pdfDocument</code> that were not saved are therefore not seen.
+     * Documents that have no locator are extracted on the calling thread.
+     *
+     * @param pdfDocument The PDF document
+     * @param firstPage The number of the first page to extract (starting at 1)
+     * @param lastPage The number of the last page to extract (inclusive)
+     * @param nThreads The number of threads to use
+     * @return The text extracted from the pages
+     * @throws IOException Thrown if the document cannot be read
+     * @throws COSLoadException Thrown if the document cannot be parsed
+     * @throws InterruptedException Thrown if interrupted while waiting for the extraction
+     */
+    public static String extractText(PDDocument pdfDocument, final int firstPage, final int lastPage, int nThreads)
+        throws IOException, COSLoadException, InterruptedException {
+
+        if (nThreads <= 0)
+            throw new IllegalArgumentException("" + nThreads);
+
+        checkPageRange(pdfDocument.getPageTree(), firstPage, lastPage);
+
+        final ILocator locator = pdfDocument.getLocator();
+        int nPages = lastPage - firstPage + 1;
+        int nTasks = Math.min(nThreads, nPages);
+
+        if (nTasks == 1 || locator == null)
+            return extractText(pdfDocument, firstPage, lastPage);
+
+        final String[] pageTexts = new String[nPages];
+        final AtomicInteger nextPage = new AtomicInteger(firstPage);
+
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(nTasks);
+        for (int t = 0; t < nTasks; t++)
+            tasks.add(new Callable<Object>() {
+                public Object call() throws IOException, COSLoadException {
+                    PDDocument document = PDDocument.createFromLocator(locator);
+                    try {
+                        PDPageTree pageTree = document.getPageTree();
+                        for (int i; (i = nextPage.getAndIncrement()) <= lastPage; ) {
+                            if (Thread.currentThread().isInterrupted())
+                                break;
+
+                            pageTexts[i - firstPage] = extractText(pageTree.getPageAt(i - 1));
+                        }
+                    }
+                    finally {
+                        document.close();
+                    }
+
+                    return null;
+                }
+            });
+
+        ExecutorService executor = Executors.newFixedThreadPool(nTasks);
+        try {
+            for (Future<Object> future : executor.invokeAll(tasks))
+                future.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof COSLoadException)
+                throw (COSLoadException) cause;
+
+            throw new RuntimeException(cause);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String pageText : pageTexts)
+            sb.append(pageText);
+
+        return sb.toString();
+    }
+
+    /**
+     * Creates a PDDocument from an InputStream.  The whole document is kept in memory, so it does
+     * not need to be closed; use {@link #getDocument(InputStream, String, String, int)} to load
+     * large documents from a temporary file instead.
      *
      * @param inputStream The InputStream
      * @param name The name
@@ -87,7 +275,79 @@ public abstract class PDFUtils {
     public static PDDocument getDocument(InputStream inputStream, String name, String type)
         throws IOException, COSLoadException {
 
-        return getDocument(StreamUtils.getBytesFromStream(inputStream), name, type);
+        byte[] pdfData = read(inputStream, MAX_SPOOL_THRESHOLD);
+        if (pdfData.length > MAX_SPOOL_THRESHOLD)
+            throw new IOException("The PDF document is too large to be loaded in memory");
+
+        return getDocument(pdfData, name, type);
+    }
+
+    /**
+     * Creates a PDDocument from an InputStream.  Documents no larger than <code>spoolThreshold</code>
+     * bytes are kept in memory; larger documents are spooled to a temporary file as they are read
+     * and are then read from that file as needed, so the memory used does not depend on their size.
+     * The temporary file is deleted when the document is closed (or right away if it cannot be
+     * opened), so documents obtained from this method must be closed.
+     *
+     * @param inputStream The InputStream
+     * @param name The name
+     * @param type The type
+     * @param spoolThreshold The size (in bytes) above which the document is spooled to a temporary file,
+     *                       at most {@link #MAX_SPOOL_THRESHOLD}
+     * @return The PDDocument
+     * @throws IOException
+     * @throws COSLoadException
+     */
+    public static PDDocument getDocument(InputStream inputStream, String name, String type, int spoolThreshold)
+        throws IOException, COSLoadException {
+
+        if (spoolThreshold < 0 || spoolThreshold > MAX_SPOOL_THRESHOLD)
+            throw new IllegalArgumentException("" + spoolThreshold);
+
+        byte[] buffer = read(inputStream, spoolThreshold);
+        if (buffer.length <= spoolThreshold)
+            return getDocument(buffer, name, type);
+
+        File file = File.createTempFile("seasr-pdf", ".pdf");
+
+        try {
+            OutputStream outputStream = new FileOutputStream(file);
+            try {
+                outputStream.write(buffer);
+                buffer = null;  // not needed while the rest of the document is copied
+                StreamUtils.copyStream(inputStream, outputStream, StreamUtils.DEFAULT_BUFFER_SIZE);
+            }
+            finally {
+                outputStream.close();
+            }
+
+            return PDDocument.createFromLocator(new SpooledFileLocator(file));
+        }
+        catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+        catch (COSLoadException e) {
+            file.delete();
+            throw e;
+        }
+        catch (RuntimeException e) {
+            file.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a PDDocument from a file.  The document is read from the file as needed, so the
+     * file must not change while the document is in use.
+     *
+     * @param file The PDF file
+     * @return The PDDocument
+     * @throws IOException
+     * @throws COSLoadException
+     */
+    public static PDDocument getDocument(File file) throws IOException, COSLoadException {
+        return PDDocument.createFromLocator(new FileLocator(file));
     }
 
     /**
@@ -107,6 +367,41 @@ public abstract class PDFUtils {
                 new ByteArrayLocator(pdfData, name, type));
     }
 
+    /**
+     * Reads a stream until its end or until more than <code>limit</code> bytes were read
+     *
+     * @param inputStream The stream
+     * @param limit The maximum number of bytes to read, at most {@link #MAX_SPOOL_THRESHOLD}
+     * @return All the bytes of the stream, or its first limit + 1 bytes if it is longer
+     * @throws IOException
+     */
+    private static byte[] read(InputStream inputStream, int limit) throws IOException {
+        int capacity = limit + 1;
+        byte[] buffer = new byte[Math.min(capacity, 8192)];
+        int length = 0;
+
+        for (int n; length < capacity; length += n) {
+            if (length == buffer.length) {
+                byte[] newBuffer = new byte[(int) Math.min(capacity, 2L * length)];
+                System.arraycopy(buffer, 0, newBuffer, 0, length);
+                buffer = newBuffer;
+            }
+
+            n = inputStream.read(buffer, length, buffer.length - length);
+            if (n == -1) {
+                if (length == buffer.length)
+                    return buffer;
+
+                byte[] data = new byte[length];
+                System.arraycopy(buffer, 0, data, 0, length);
+
+                return data;
+            }
+        }
+
+        return buffer;
+    }
+
     /**
      * Extracts text from the page tree of a PDF document
      *
@@ -117,16 +412,141 @@ public abstract class PDFUtils {
         for (Iterator<?> it = pageTree.getKids().iterator(); it.hasNext();) {
             PDPageNode node = (PDPageNode) it.next();
             if (node.isPage()) {
-                CSTextExtractor extractor = new CSTextExtractor();
-                PDPage page = (PDPage) node;
-                CSDeviceBasedInterpreter interpreter = new CSDeviceBasedInterpreter(
-                        null, extractor);
-                interpreter.process(page.getContentStream(), page
-                        .getResources());
-                sb.append(extractor.getContent());
+                sb.append(extractText((PDPage) node));
             } else {
                 extractText((PDPageTree) node, sb);
             }
         }
     }
+
+    /**
+     * Extracts text from a page of a PDF document
+     *
+     * @param page The page
+     * @return The text extracted from the page
+     */
+    private static String extractText(PDPage page) {
+        CSTextExtractor extractor = new CSTextExtractor();
+        CSDeviceBasedInterpreter interpreter = new CSDeviceBasedInterpreter(
+                null, extractor);
+        interpreter.process(page.getContentStream(), page
+                .getResources());
+        return extractor.getContent();
+    }
+
+    private static void checkPageRange(PDPageTree pageTree, int firstPage, int lastPage) {
+        if (firstPage < 1 || firstPage > lastPage || lastPage > pageTree.getCount())
+            throw new IllegalArgumentException(
+                    String.format("Invalid page range %d-%d (the document has %d pages)",
+                            firstPage, lastPage, pageTree.getCount()));
+    }
+
+    /**
+     * The text of a page of a PDF document
+     */
+    public static class PageText {
+        private final int _pageNumber;
+        private final String _text;
+
+        public PageText(int pageNumber, String text) {
+            _pageNumber = pageNumber;
+            _text = text;
+        }
+
+        /**
+         * @return The number of the page (starting at 1)
+         */
+        public int getPageNumber() {
+            return _pageNumber;
+        }
+
+        /**
+         * @return The text extracted from the page
+         */
+        public String getText() {
+            return _text;
+        }
+
+        @Override
+        public String toString() {
+            return _text;
+        }
+    }
+
+    /**
+     * Locator of the temporary file a PDF document read from a stream was spooled to.
+     * The file is deleted once all the random accesses opened on it are closed, which
+     * happens when the document (and any copy opened for the page-parallel extraction)
+     * is closed.
+     */
+    private static class SpooledFileLocator extends FileLocator {
+
+        private int _nOpen;
+
+        SpooledFileLocator(File file) {
+            super(file);
+        }
+
+        @Override
+        public synchronized IRandomAccess getRandomAccess() throws IOException {
+            IRandomAccess randomAccess = super.getRandomAccess();
+            _nOpen++;
+
+            return new RandomAccessFilter(randomAccess) {
+                private boolean _closed;
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    }
+                    finally {
+                        if (!_closed) {
+                            _closed = true;
+                            release();
+                        }
+                    }
+                }
+            };
+        }
+
+        private synchronized void release() {
+            if (--_nOpen == 0)
+                getFile().delete();
+        }
+    }
+
+    private static class PageTextIterator implements Iterator<PageText> {
+        private PDPage _page;
+        private int _pageNumber;
+        private final int _lastPage;
+
+        PageTextIterator(PDPage firstPage, int firstPageNumber, int lastPageNumber) {
+            _page = firstPage;
+            _pageNumber = firstPageNumber;
+            _lastPage = lastPageNumber;
+        }
+
+        public boolean hasNext() {
+            return _page != null;
+        }
+
+        public PageText next() {
+            if (_page == null)
+                throw new NoSuchElementException();
+
+            PDPage page = _page;
+            String text = extractText(page);
+            // drop the parsed content stream cached by the page
+            page.invalidateCaches();
+
+            _page = (_pageNumber < _lastPage) ? page.getNextPage() : null;
+
+            return new PageText(_pageNumber++, text);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
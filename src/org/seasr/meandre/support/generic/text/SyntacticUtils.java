@@ -47,42 +47,84 @@ package org.seasr.meandre.support.generic.text;
  *
  */
 public abstract class SyntacticUtils {
+
+    // VOWELS[c] is 1 if c is a vowel (counting y), 0 otherwise
+    private static final byte[] VOWELS = new byte[128];
+
+    static {
+        for (char c : "aeiouyAEIOUY".toCharArray())
+            VOWELS[c] = 1;
+    }
+
     // A method to count the number of syllables in a word
     // Pretty basic, just based off of the number of vowels
     // This could be improved
     public static int countSyllables(String word) {
-        int      syl    = 0;
-        boolean  vowel  = false;
-        int      length = word.length();
+        return countSyllables(word, 0, word.length());
+    }
+
+    /**
+     * Counts the syllables of the word found between <code>start</code> (inclusive) and
+     * <code>end</code> (exclusive) of a character sequence, so that tokenizers can count
+     * without creating a substring.
+     *
+     * @param text The sequence holding the word
+     * @param start The start of the word
+     * @param end The end of the word
+     * @return The number of syllables (0 for an empty word)
+     */
+    public static int countSyllables(CharSequence text, int start, int end) {
+        int syl = 0;
+        int prevVowel = 0;
 
-        //check each word for vowels (don't count more than one vowel in a row)
-        for(int i=0; i<length; i++) {
-            if        (isVowel(word.charAt(i)) && (vowel==false)) {
-                vowel = true;
-                syl++;
-            } else if (isVowel(word.charAt(i)) && (vowel==true)) {
-                vowel = true;
-            } else {
-                vowel = false;
-            }
+        // count groups of consecutive vowels
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            int vowel = (c < 128) ? VOWELS[c] : 0;
+            syl += vowel & ~prevVowel;
+            prevVowel = vowel;
         }
 
-        char tempChar = word.charAt(word.length()-1);
-        //check for 'e' at the end, as long as not a word w/ one syllable
-        if (((tempChar == 'e') || (tempChar == 'E')) && (syl != 1)) {
-            syl--;
+        return (end > start) ? adjustForFinalE(syl, text.charAt(end - 1)) : 0;
+    }
+
+    /**
+     * Counts the syllables of a word held in a region of a char[]
+     *
+     * @param text The buffer holding the word
+     * @param offset The offset of the word
+     * @param length The length of the word
+     * @return The number of syllables (0 for an empty word)
+     */
+    public static int countSyllables(char[] text, int offset, int length) {
+        int syl = 0;
+        int prevVowel = 0;
+
+        for (int i = offset, iMax = offset + length; i < iMax; i++) {
+            char c = text[i];
+            int vowel = (c < 128) ? VOWELS[c] : 0;
+            syl += vowel & ~prevVowel;
+            prevVowel = vowel;
         }
-        return syl;
+
+        return (length > 0) ? adjustForFinalE(syl, text[offset + length - 1]) : 0;
     }
 
     //check if a char is a vowel (count y)
     public static boolean isVowel(char c) {
-        if      ((c == 'a') || (c == 'A')) { return true;  }
-        else if ((c == 'e') || (c == 'E')) { return true;  }
-        else if ((c == 'i') || (c == 'I')) { return true;  }
-        else if ((c == 'o') || (c == 'O')) { return true;  }
-        else if ((c == 'u') || (c == 'U')) { return true;  }
-        else if ((c == 'y') || (c == 'Y')) { return true;  }
-        else                               { return false; }
+        return c < 128 && VOWELS[c] != 0;
+    }
+
+    /**
+     * Applies the final 'e' rule of {@link #countSyllables(String)} to a word's count of vowel
+     * groups: a final 'e' is silent, unless it is the only vowel group of the word.  For callers
+     * that count the vowel groups as they read the word.
+     *
+     * @param syl The number of groups of consecutive vowels of the word
+     * @param lastChar The last character of the word
+     * @return The number of syllables
+     */
+    public static int adjustForFinalE(int syl, char lastChar) {
+        return ((lastChar == 'e' || lastChar == 'E') && syl != 1) ? syl - 1 : syl;
     }
 }
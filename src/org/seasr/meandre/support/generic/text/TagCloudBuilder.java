@@ -0,0 +1,154 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.seasr.meandre.support.generic.util.SpaceSavingCounter;
+
+/**
+ * Builds tag clouds incrementally from a stream of tokens.
+ *
+ * The tokens are counted in bounded memory by a {@link SpaceSavingCounter}, so an unbounded
+ * stream can be consumed; a tag cloud of the most frequent tokens seen so far can be created
+ * at any time. Tokens may be added from several threads, also while a cloud is being created.
+ */
+
+public class TagCloudBuilder {
+
+    /** The default number of distinct tokens tracked */
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private final TagCloudImageMaker _maker;
+    private final SpaceSavingCounter<String> _counter;
+
+    public TagCloudBuilder(TagCloudImageMaker maker) {
+        this(maker, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a builder
+     *
+     * @param maker The maker used to create the tag cloud images
+     * @param capacity The number of distinct tokens tracked; tokens occurring more than
+     *                 1/capacity of the time are guaranteed to be counted
+     */
+    public TagCloudBuilder(TagCloudImageMaker maker, int capacity) {
+        if (maker == null)
+            throw new NullPointerException();
+
+        _maker = maker;
+        _counter = new SpaceSavingCounter<String>(capacity);
+    }
+
+    public TagCloudImageMaker getMaker() {
+        return _maker;
+    }
+
+    public SpaceSavingCounter<String> getCounter() {
+        return _counter;
+    }
+
+    public void add(String token) {
+        _counter.add(token);
+    }
+
+    public void add(String token, int count) {
+        _counter.add(token, count);
+    }
+
+    public void addAll(String[] tokens) {
+        for (String token : tokens)
+            _counter.add(token);
+    }
+
+    public void addAll(Iterable<String> tokens) {
+        for (String token : tokens)
+            _counter.add(token);
+    }
+
+    /**
+     * Adds token counts, such as those computed for a document
+     *
+     * @param tokenCounts The token counts
+     */
+    public void addAll(Map<String, Integer> tokenCounts) {
+        for (Entry<String, Integer> entry : tokenCounts.entrySet())
+            if (entry.getValue() > 0)
+                _counter.add(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Returns the current counts of the most frequent tokens, limited to the maximum
+     * number of words of the maker
+     *
+     * @return The token counts, in descending count order
+     */
+    public Map<String, Integer> getWordCounts() {
+        Map<String, Long> counts = _counter.getTopCounts(_maker.getMaxWords());
+        Map<String, Integer> wordCounts = new LinkedHashMap<String, Integer>(counts.size() * 4 / 3 + 1);
+        for (Entry<String, Long> entry : counts.entrySet())
+            wordCounts.put(entry.getKey(), (int) Math.min(entry.getValue(), Integer.MAX_VALUE));
+
+        return wordCounts;
+    }
+
+    /**
+     * Creates a tag cloud of the tokens counted so far
+     *
+     * @return The tag cloud image, or null if no tokens were added
+     * @throws InterruptedException
+     */
+    public TagCloudImage createTagCloudImage() throws InterruptedException {
+        return _maker.createTagCloudImage(getWordCounts());
+    }
+
+    /**
+     * Discards the tokens counted so far
+     */
+    public void clear() {
+        _counter.clear();
+    }
+}
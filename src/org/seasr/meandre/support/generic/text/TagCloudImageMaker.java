@@ -46,12 +46,22 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.font.FontRenderContext;
-import java.awt.font.TextLayout;
 import java.awt.image.BufferedImage;
-import java.awt.image.PixelGrabber;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+import org.seasr.meandre.support.generic.util.BoundedCache;
 
 /**
  * @author Lily Dong
@@ -59,12 +69,31 @@ import java.util.Map.Entry;
  */
 public class TagCloudImageMaker {
 
+    /**
+     * The maximum number of bytes of rendered words (pixels and masks) kept in the cache shared
+     * by all the makers.  Each word holds a full ARGB raster, so the cache is bounded by memory
+     * rather than by the number of words: a few large words weigh as much as many small ones.
+     */
+    public static final int WORD_CACHE_BYTES = 16 * 1024 * 1024;
+
+    private static final BoundedCache<TagCloudWord.Key, TagCloudWord> _wordCache =
+        new BoundedCache<TagCloudWord.Key, TagCloudWord>(WORD_CACHE_BYTES) {
+            @Override
+            protected long weigh(TagCloudWord.Key key, TagCloudWord word) {
+                return word.getMemorySize();
+            }
+        };
+
     private int _canvasWidth, _canvasHeight;
     private float _maxFontSize, _minFontSize;
     private String _fontName;
     private boolean _showCounts;
     private Random _rand;
     private long _seed;
+    private int _renderingThreads = Runtime.getRuntime().availableProcessors();
+    private ExecutorService _renderingExecutor;
+    private boolean _cacheWords = false;
+    private int _maxWords = Integer.MAX_VALUE;
 
     public TagCloudImageMaker(long seed, int canvasWidth, int canvasHeight,
             String fontName, float minFontSize, float maxFontSize, boolean showCounts) {
@@ -141,43 +170,206 @@ public class TagCloudImageMaker {
         return _showCounts;
     }
 
+    /**
+     * Sets the number of threads used to render the words ahead of their placement.
+     * The words are always placed sequentially, so the image does not depend on this setting.
+     *
+     * @param nThreads The number of threads (1 renders the words on the calling thread)
+     */
+    public synchronized void setRenderingThreads(int nThreads) {
+        if (nThreads <= 0)
+            throw new IllegalArgumentException("" + nThreads);
+
+        if (nThreads != _renderingThreads)
+            close();
+        _renderingThreads = nThreads;
+    }
+
+    public synchronized int getRenderingThreads() {
+        return _renderingThreads;
+    }
+
+    /**
+     * Shuts down the threads rendering the words, if any.  The threads are created when the
+     * first cloud is generated and reused by the following ones; they are daemon threads, so
+     * a maker that is not closed does not prevent the JVM from exiting.  A closed maker can
+     * still be used, and creates new threads as needed.
+     */
+    public synchronized void close() {
+        if (_renderingExecutor != null) {
+            _renderingExecutor.shutdownNow();
+            _renderingExecutor = null;
+        }
+    }
+
+    /**
+     * Returns the pool of threads rendering the words, creating it if needed
+     *
+     * @return The pool, or null if the words are rendered on the calling thread
+     */
+    private synchronized ExecutorService getRenderingExecutor() {
+        if (_renderingThreads > 1 && _renderingExecutor == null)
+            _renderingExecutor = Executors.newFixedThreadPool(_renderingThreads, new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "TagCloudImageMaker-renderer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+        return _renderingExecutor;
+    }
+
+    /**
+     * Sets the maximum number of words considered for placement; only the words
+     * with the highest counts are selected, and the font sizes are scaled over their counts.
+     *
+     * @param maxWords The maximum number of words
+     */
+    public void setMaxWords(int maxWords) {
+        if (maxWords <= 0)
+            throw new IllegalArgumentException("" + maxWords);
+
+        _maxWords = maxWords;
+    }
+
+    public int getMaxWords() {
+        return _maxWords;
+    }
+
+    /**
+     * Sets whether rendered words (images and collision masks) are looked up in and added to
+     * the cache shared by all the makers, so that clouds repeatedly generated for the same
+     * vocabulary, font and size range skip rendering.
+     *
+     * The cache is off by default: a word is only reused when its text, font, size and color
+     * all match, and the color depends on the rank of the word (and the text on its count when
+     * counts are shown), so only clouds regenerated from the same data benefit from it.  When it
+     * is on, the cache holds at most {@link #WORD_CACHE_BYTES} bytes of rendered words.
+     *
+     * @param value True to use the word cache, false otherwise
+     */
+    public void setCacheWords(boolean value) {
+        _cacheWords = value;
+    }
+
+    public boolean getCacheWords() {
+        return _cacheWords;
+    }
+
+    /**
+     * Returns the cache of rendered words shared by all the makers; use it to read the hit rate
+     * statistics or to clear it
+     *
+     * @return The word cache
+     */
+    public static BoundedCache<?, ?> getWordCache() {
+        return _wordCache;
+    }
+
     public TagCloudImage createTagCloudImage(Map<String, Integer> wordCounts)
         throws InterruptedException {
-    	
+
         if (wordCounts == null || wordCounts.size() == 0) return null;
 
+        TagCloudImage image = new TagCloudImage(_canvasWidth, _canvasHeight, BufferedImage.TYPE_INT_ARGB);
+        image.setTotalWords(wordCounts.size());
+
+        Graphics2D g2D = image.createGraphics();
+        FontRenderContext frc = g2D.getFontRenderContext();
+        g2D.dispose();
+
+        final int[] canvas = TagCloudWord.getPixels(image);
+        final int canvasWidth = _canvasWidth;
+
+        int nShownWords = placeWords(wordCounts, frc, new WordPlacementHandler() {
+            public void wordPlaced(TagCloudWord word, int x, int y) {
+                word.drawTo(canvas, canvasWidth, x, y);
+            }
+        });
+
+        image.setShownWords(nShownWords);
+
+        //g.drawImage(image, 0, 0, this);
+        return image;
+    }
+
+    /**
+     * Computes the placement of the words the same way createTagCloudImage does,
+     * without drawing them on an image
+     *
+     * @param wordCounts The word counts
+     * @return The layout, or null if there are no words
+     * @throws InterruptedException
+     */
+    public TagCloudLayout createTagCloudLayout(Map<String, Integer> wordCounts)
+        throws InterruptedException {
+
+        if (wordCounts == null || wordCounts.size() == 0) return null;
+
+        final TagCloudLayout layout = new TagCloudLayout(_canvasWidth, _canvasHeight);
+        layout.setTotalWords(wordCounts.size());
+
+        // lay the words out as they would be on an image, for the same measurements
+        Graphics2D g2D = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        FontRenderContext frc = g2D.getFontRenderContext();
+        g2D.dispose();
+
+        placeWords(wordCounts, frc, new WordPlacementHandler() {
+            public void wordPlaced(TagCloudWord word, int x, int y) {
+                layout.addWord(word, x, y);
+            }
+        });
+
+        return layout;
+    }
+
+    /**
+     * Creates a tag cloud as an SVG document, a much smaller alternative to an image for web clients
+     *
+     * @param wordCounts The word counts
+     * @return The SVG document, or null if there are no words
+     * @throws InterruptedException
+     */
+    public String createTagCloudSVG(Map<String, Integer> wordCounts)
+        throws InterruptedException {
+
+        TagCloudLayout layout = createTagCloudLayout(wordCounts);
+
+        return (layout != null) ? layout.toSVG() : null;
+    }
+
+    private int placeWords(Map<String, Integer> wordCounts, FontRenderContext frc,
+            WordPlacementHandler handler) throws InterruptedException {
+
         _rand = new Random(_seed);
 
-        int length = wordCounts.size();
-        String[] text = new String[length];
-        int[] fontSize = new int[length];
-        int[] count = new int[length];
+        int total = wordCounts.size();
+        String[] words = new String[total];
+        long[] keys = new long[total];
 
+        // a key packs the count (high bits) and the complement of the word index (low bits),
+        // so that sorting the keys orders the words by count, ties in map iteration order
         int pos = 0;
         for (Entry<String, Integer> entry : wordCounts.entrySet()) {
-            text[pos] = entry.getKey();
-            count[pos] = entry.getValue();
-            fontSize[pos++] = entry.getValue();
+            words[pos] = entry.getKey();
+            keys[pos] = ((long)entry.getValue() << 32) | (~pos & 0xFFFFFFFFL);
+            pos++;
         }
 
-        for(int i=0; i<count.length-1; i++) { //sort
-            int p = i; //p points to the biggest value
-            for(int j=i+1; j<count.length; j++) {
-                if(count[j] > count[p])
-                    p = j;
-            }
-            if(p != i) { //swap
-                String s = text[i];
-                text[i] = text[p];
-                text[p] = s;
-                int t = count[i];
-                count[i] = count[p];
-                count[p] = t;
-                t = fontSize[i];
-                fontSize[i] = fontSize[p];
-                fontSize[p] = t;
-            }
+        keys = selectTopKeys(keys, Math.min(_maxWords, total));
+
+        int length = keys.length;
+        String[] text = new String[length];
+        int[] fontSize = new int[length];
+        int[] count = new int[length];
+
+        for (int i = 0; i < length; i++) {
+            long key = keys[length - 1 - i];
+            text[i] = words[~(int)key];
+            count[i] = fontSize[i] = (int)(key >> 32);
         }
+
         int maxValue = fontSize[0],
             minValue = fontSize[fontSize.length-1];
 
@@ -198,141 +390,165 @@ public class TagCloudImageMaker {
                 fontSize[k] = (int)_minFontSize;
         }
 
-        boolean[][] grid = new boolean[_canvasWidth][_canvasHeight];
-        for(int i=0; i<grid.length; i++)
-            for(int j=0; j<grid[0].length; j++)
-                grid[i][j] = false;
+        TagCloudOccupancyGrid grid = new TagCloudOccupancyGrid(_canvasWidth, _canvasHeight, margin);
 
-        TagCloudImage image = new TagCloudImage(_canvasWidth, _canvasHeight, BufferedImage.TYPE_INT_ARGB);
-        image.setTotalWords(text.length);
-
-        Graphics2D g2D = image.createGraphics();
-        FontRenderContext frc = g2D.getFontRenderContext();
+        // the words are rendered by a pool of threads, a few words ahead of the one being placed
+        ExecutorService executor = getRenderingExecutor();
+        int lookahead = 4 * _renderingThreads;
+        List<Future<TagCloudWord>> rendered = new ArrayList<Future<TagCloudWord>>(text.length);
 
         boolean done = false;
         int k;
-        for(k=0; k<text.length; k++) {
-            String str = (_showCounts)? text[k]+" "+count[k]: text[k];
-
-            Font font = new Font(_fontName, Font.BOLD, fontSize[k]);
-            TextLayout layout = new TextLayout(/*text[k]*/str, font, frc);
-
-            int w = (int)layout.getVisibleAdvance(),
-                h = (int)(layout.getAscent()+layout.getDescent());
-
-            int textWidth = w+2*margin,
-                textHeight = h+2*margin;
-
-            int xCoord = (textWidth-w)/2,
-                yCoord = (int)layout.getAscent()+(textHeight-h)/2;
-
-            BufferedImage textImage = new BufferedImage(
-                    textWidth, textHeight,BufferedImage.TYPE_INT_ARGB);
-            Graphics2D textG2D = textImage.createGraphics();
-
-            textG2D.setColor(Color.white);
-            textG2D.fillRect(0, 0, textWidth-1, textHeight-1);
-            textG2D.setColor(colors[k%colors.length]);
-            textG2D.setFont(font);
-            textG2D.drawString(/*text[k]*/str, xCoord, yCoord);
-
-            BufferedImage biFlip = null;
-            if(k%5 == 0) {
-                biFlip = new BufferedImage(textHeight, textWidth,textImage.getType());
-                for(int i=0; i<textWidth; i++)
-                    for(int j=0; j<textHeight; j++)
-                        biFlip.setRGB(textHeight-1-j, i, textImage.getRGB(i, j));
-                        //biFlip.setRGB(j, textWidth-1-i, textImage.getRGB(i, j));
-                textImage = biFlip;
-                int tmp = textWidth;
-                textWidth = textHeight;
-                textHeight = tmp;
-            }
+        try {
+            for(k=0; k<text.length; k++) {
+                while (rendered.size() < text.length && rendered.size() <= k + lookahead) {
+                    int n = rendered.size();
+                    String str = (_showCounts)? text[n]+" "+count[n]: text[n];
+                    Font font = new Font(_fontName, Font.BOLD, fontSize[n]);
+                    Callable<TagCloudWord> task = newRenderTask(/*text[n]*/str, font,
+                            colors[n%colors.length], n%5 == 0, frc, margin, _cacheWords);
+
+                    if (executor != null)
+                        rendered.add(executor.submit(task));
+                    else {
+                        FutureTask<TagCloudWord> future = new FutureTask<TagCloudWord>(task);
+                        future.run();
+                        rendered.add(future);
+                    }
+                }
+
+                TagCloudWord word = getRenderedWord(rendered.get(k));
+                rendered.set(k, null);
+
+                int textWidth = word.getWidth(),
+                    textHeight = word.getHeight();
+
+                TagCloudMask mask = word.getMask();
 
-            int[] pixels = new int [textWidth * textHeight];
-            PixelGrabber pg = new PixelGrabber (textImage, 0, 0, textWidth, textHeight,
-                        pixels, 0, textWidth);
-            pg.grabPixels ();
-
-            boolean[][] mask = new boolean[textWidth][textHeight];
-            for(int i=0; i<mask.length; ++i)
-                for(int j=0; j<mask[0].length; ++j)
-                    mask[i][j] = false;
-            for (int j=0; j<textHeight; j+=margin) {
-                for (int i=0; i< textWidth; i+=margin) {
-                    boolean found = false;
-                    for(int ii=i; ii<i+margin&&ii<textWidth-margin; ii++) {
-                        for(int jj=j; jj<j+margin&&jj<textHeight-margin; jj++) {
-                            int value = pixels[jj * textWidth + ii];
-                            byte[] rgb = new byte[3];
-                            rgb [0] = (byte) (value & 0xFF);
-                            rgb [1] = (byte) ((value >> 8) & 0xFF);
-                            rgb [2] = (byte) ((value >>  16) & 0xFF);
-                            //if(rgb[0]!=0 || rgb[1]!=0 || rgb[2]!=0) {
-                            if(!(rgb[0]==-1  && rgb[1]==-1 && rgb[2]==-1)) {
-                                //textG2D.fillRect(i, j, 5, 5);
-                                mask[i][j] = true;
-                                found = true;
-                                break;
-                            }
-                        }//jj
-                        if(found)
-                            break;
-                    }//ii
-                }//i
-            }//j
-
-
-            double a = _rand.nextDouble() * Math.PI;
-            double d = _rand.nextDouble() * (Math.max(textWidth, textHeight)/4);
-            double da = (_rand.nextDouble()-0.5) / 2;
-            double dd = 0.05;
-            int x, y;
-            int nr = 0;
-
-            while (true) {
-                x = (int)(Math.floor((_canvasWidth/2 + (Math.cos(a)*d*2) - (textWidth/2))/5)*5);
-                y = (int)(Math.floor((_canvasHeight/2 + (Math.sin(a)*d) - (textHeight/2))/5)*5);
-
-                x = (x<0)?0: x;
-                y = (y<0)?0: y;
-
-                boolean fail = false;
-                for (int xt=0; xt<textWidth && !fail; xt+=margin) {
-                    for (int yt=0; yt<textHeight && !fail; yt+=margin) {
-                        if(xt+x>=_canvasWidth ||
-                           yt+y>=_canvasHeight ||
-                           (mask[xt][yt] && grid[xt + x][yt + y]))
-                                fail = true;
+                double a = _rand.nextDouble() * Math.PI;
+                double d = _rand.nextDouble() * (Math.max(textWidth, textHeight)/4);
+                double da = (_rand.nextDouble()-0.5) / 2;
+                double dd = 0.05;
+                int x, y;
+                int nr = 0;
+
+                while (true) {
+                    x = (int)(Math.floor((_canvasWidth/2 + (Math.cos(a)*d*2) - (textWidth/2))/5)*5);
+                    y = (int)(Math.floor((_canvasHeight/2 + (Math.sin(a)*d) - (textHeight/2))/5)*5);
+
+                    x = (x<0)?0: x;
+                    y = (y<0)?0: y;
+
+                    if (grid.fits(mask, x/margin, y/margin))
+                        break;
+                    a += da;
+                    d += dd;
+
+                    if(++nr>10000) {//endless loop
+                        done = true; //finished ahead of schedule
+                        break;
                     }
                 }
-                if (!fail)
+                if(!done) {
+                    grid.occupy(mask, x/margin, y/margin);
+                    handler.wordPlaced(word, x, y);
+                } else
                     break;
-                a += da;
-                d += dd;
+            }//k
+        }
+        finally {
+            // the words rendered ahead but not placed
+            for (Future<TagCloudWord> future : rendered)
+                if (future != null)
+                    future.cancel(true);
+        }
 
-                if(++nr>10000) {//endless loop
-                    done = true; //finished ahead of schedule
-                    break;
-                }
+        return k;
+    }
+
+    /**
+     * Selects the k largest keys in O(n log k) using a min-heap
+     *
+     * @param keys The keys (reordered by this method)
+     * @param k The number of keys to select
+     * @return The k largest keys in ascending order
+     */
+    private static long[] selectTopKeys(long[] keys, int k) {
+        if (k >= keys.length) {
+            Arrays.sort(keys);
+            return keys;
+        }
+
+        // keys[0..k) is a min-heap holding the largest keys seen so far
+        for (int i = k / 2 - 1; i >= 0; i--)
+            siftDown(keys, i, k);
+
+        for (int i = k; i < keys.length; i++)
+            if (keys[i] > keys[0]) {
+                keys[0] = keys[i];
+                siftDown(keys, 0, k);
             }
-            if(!done) {
-                for (int xt=0; xt<textWidth; xt+=margin) {
-                    for (int yt = 0; yt<textHeight; yt+=margin)
-                        if (mask[xt][yt])
-                            grid[xt+x][yt+y] = true;
-                }
-                for(int i=0; i<textWidth; i++)
-                    for(int j=0; j<textHeight; j++)
-                        if(mask[(i/margin)*margin][(j/margin)*margin])
-                            image.setRGB(x+i, y+j, textImage.getRGB(i, j));
-            } else
+
+        long[] top = new long[k];
+        System.arraycopy(keys, 0, top, 0, k);
+        Arrays.sort(top);
+
+        return top;
+    }
+
+    private static void siftDown(long[] heap, int i, int size) {
+        long key = heap[i];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && heap[child + 1] < heap[child])
+                child++;
+            if (key <= heap[child])
                 break;
-        }//k
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
 
-        image.setShownWords(k);
+    private static Callable<TagCloudWord> newRenderTask(final String text, final Font font,
+            final Color color, final boolean rotate, final FontRenderContext frc, final int margin,
+            final boolean useCache) {
 
-        //g.drawImage(image, 0, 0, this);
-        return image;
+        return new Callable<TagCloudWord>() {
+            public TagCloudWord call() {
+                if (!useCache)
+                    return TagCloudWord.render(text, font, color, rotate, frc, margin);
+
+                TagCloudWord.Key key = new TagCloudWord.Key(text, font, color, rotate, margin);
+                TagCloudWord word = _wordCache.get(key);
+                if (word == null) {
+                    word = TagCloudWord.render(text, font, color, rotate, frc, margin);
+                    _wordCache.put(key, word);
+                }
+
+                return word;
+            }
+        };
+    }
+
+    private static TagCloudWord getRenderedWord(Future<TagCloudWord> future)
+        throws InterruptedException {
+
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private interface WordPlacementHandler {
+        void wordPlaced(TagCloudWord word, int x, int y);
     }
 }
@@ -0,0 +1,174 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang.StringEscapeUtils;
+
+/**
+ * The placement of the words of a tag cloud, as computed by the TagCloudImageMaker,
+ * which can be written out as SVG instead of being drawn on an image.
+ */
+public class TagCloudLayout {
+    private final int _width, _height;
+    private final List<TagCloudWord> _words = new ArrayList<TagCloudWord>();
+    private final List<int[]> _positions = new ArrayList<int[]>();
+    private int _nTotalWords;
+
+    public TagCloudLayout(int width, int height) {
+        _width = width;
+        _height = height;
+    }
+
+    void addWord(TagCloudWord word, int x, int y) {
+        _words.add(word);
+        _positions.add(new int[] { x, y });
+    }
+
+    public int getWidth() {
+        return _width;
+    }
+
+    public int getHeight() {
+        return _height;
+    }
+
+    public boolean hasAllWords() {
+        return _nTotalWords == _words.size();
+    }
+
+    public void setTotalWords(int nTotalWords) {
+        _nTotalWords = nTotalWords;
+    }
+
+    public int getTotalWords() {
+        return _nTotalWords;
+    }
+
+    public int getShownWords() {
+        return _words.size();
+    }
+
+    /**
+     * Creates an SVG document showing the words at their placement
+     *
+     * @return The SVG document
+     */
+    public String toSVG() {
+        StringBuilder sb = new StringBuilder(128 + 96 * _words.size());
+        sb.append("<svg xmlns='http://www.w3.org/2000/svg' width='").append(_width)
+          .append("' height='").append(_height)
+          .append("' viewBox='0 0 ").append(_width).append(' ').append(_height).append("'>\n");
+
+        String fontFamily = null;
+        int fontStyle = -1;
+
+        for (int i = 0; i < _words.size(); i++) {
+            TagCloudWord word = _words.get(i);
+            int[] pos = _positions.get(i);
+            Font font = word.getFont();
+
+            // consecutive words sharing a font are grouped to keep the document small
+            if (!font.getName().equals(fontFamily) || font.getStyle() != fontStyle) {
+                if (fontFamily != null)
+                    sb.append("</g>\n");
+
+                fontFamily = font.getName();
+                fontStyle = font.getStyle();
+
+                sb.append("<g font-family='").append(toCssFontFamily(fontFamily)).append("'");
+                if (font.isBold())
+                    sb.append(" font-weight='bold'");
+                if (font.isItalic())
+                    sb.append(" font-style='italic'");
+                sb.append(">\n");
+            }
+
+            sb.append("<text");
+            if (word.isRotated())
+                // the word's image was turned clockwise, so its baseline runs down from
+                // the top of the image, at the distance the baseline had from the bottom
+                sb.append(" transform='translate(")
+                  .append(pos[0] + word.getWidth() - word.getBaselineY()).append(',')
+                  .append(pos[1] + word.getBaselineX()).append(") rotate(90)'");
+            else
+                sb.append(" x='").append(pos[0] + word.getBaselineX())
+                  .append("' y='").append(pos[1] + word.getBaselineY()).append("'");
+
+            sb.append(" font-size='").append(font.getSize())
+              .append("' fill='").append(toHex(word.getColor())).append("'>")
+              .append(StringEscapeUtils.escapeXml(word.getText()))
+              .append("</text>\n");
+        }
+
+        if (fontFamily != null)
+            sb.append("</g>\n");
+
+        sb.append("</svg>");
+
+        return sb.toString();
+    }
+
+    /**
+     * Maps the Java logical font names to the CSS generic font families
+     */
+    private static String toCssFontFamily(String fontName) {
+        if (fontName.equalsIgnoreCase(Font.SERIF))
+            return "serif";
+        if (fontName.equalsIgnoreCase(Font.SANS_SERIF) || fontName.equalsIgnoreCase(Font.DIALOG))
+            return "sans-serif";
+        if (fontName.equalsIgnoreCase(Font.MONOSPACED) || fontName.equalsIgnoreCase(Font.DIALOG_INPUT))
+            return "monospace";
+
+        return StringEscapeUtils.escapeXml(fontName);
+    }
+
+    private static String toHex(Color color) {
+        String hex = Integer.toHexString(color.getRGB() & 0xFFFFFF);
+        return "#000000".substring(0, 7 - hex.length()) + hex;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text;
+
+/**
+ * Collision mask of a word of a tag cloud, on the lattice of margin x margin cells used to
+ * place the words.  A cell is set if the word image has a non-white pixel in it (the last
+ * row and column of cells, which only contain the word's margin, are never set).
+ *
+ * The cells are bit-packed, one bit per cell and 64 cells per long, each row starting
+ * on a new long: bit i of long w of a row holds the cell in column 64*w + i.
+ */
+class TagCloudMask {
+
+    private final int _cols, _rows, _wordsPerRow;
+    private final long[] _bits;
+    private int _setCells;
+
+    private TagCloudMask(int cols, int rows) {
+        _cols = cols;
+        _rows = rows;
+        _wordsPerRow = (cols + 63) >>> 6;
+        _bits = new long[_wordsPerRow * rows];
+    }
+
+    /**
+     * Computes the mask of a word image
+     *
+     * @param pixels The ARGB pixels of the image, row by row
+     * @param width The image width
+     * @param height The image height
+     * @param margin The size of a cell
+     * @return The mask
+     */
+    static TagCloudMask fromPixels(int[] pixels, int width, int height, int margin) {
+        TagCloudMask mask = new TagCloudMask((width + margin - 1) / margin, (height + margin - 1) / margin);
+
+        for (int row = 0; row < mask._rows; row++) {
+            int yMax = Math.min((row + 1) * margin, height - margin);
+            for (int col = 0; col < mask._cols; col++) {
+                int xMax = Math.min((col + 1) * margin, width - margin);
+                search:
+                for (int x = col * margin; x < xMax; x++)
+                    for (int y = row * margin; y < yMax; y++)
+                        if ((pixels[y * width + x] & 0xFFFFFF) != 0xFFFFFF) {
+                            mask._bits[row * mask._wordsPerRow + (col >>> 6)] |= 1L << (col & 63);
+                            mask._setCells++;
+                            break search;
+                        }
+            }
+        }
+
+        return mask;
+    }
+
+    int getCols() {
+        return _cols;
+    }
+
+    int getRows() {
+        return _rows;
+    }
+
+    int getWordsPerRow() {
+        return _wordsPerRow;
+    }
+
+    /**
+     * Returns the number of set cells
+     *
+     * @return The number of set cells
+     */
+    int getSetCells() {
+        return _setCells;
+    }
+
+    /**
+     * Returns 64 cells of a row
+     *
+     * @param row The row
+     * @param word The index of the long in the row (cells 64*word to 64*word + 63)
+     * @return The cells, as bits
+     */
+    long getWord(int row, int word) {
+        return _bits[row * _wordsPerRow + word];
+    }
+
+    boolean isSet(int col, int row) {
+        return ((_bits[row * _wordsPerRow + (col >>> 6)] >>> (col & 63)) & 1L) != 0;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text;
+
+/**
+ * Keeps track of the parts of a tag cloud canvas occupied by the words placed so far.
+ *
+ * The occupancy is kept on the lattice of margin x margin cells the words are placed on,
+ * bit-packed like the word masks (one bit per cell, 64 cells per long, each row starting on a
+ * new long), so a collision test ANDs 64 mask cells with 64 grid cells at a time and the grid
+ * uses one bit per margin x margin block of pixels.
+ *
+ * A summed-area table of the occupied cells, rebuilt lazily once per placed word, decides most
+ * tests in constant time before the bitwise test is tried: a word fits if no cell under its
+ * bounding box is occupied, and cannot fit if all of them are (and its mask is not empty).
+ */
+class TagCloudOccupancyGrid {
+
+    private final int _cols, _rows, _wordsPerRow;
+    private final long[] _bits;
+
+    // _sat[r * (_cols + 1) + c] = number of occupied cells in rows [0,r) and columns [0,c)
+    private final int[] _sat;
+    private boolean _satValid = true;
+
+    /**
+     * Creates an empty grid
+     *
+     * @param width The canvas width (in pixels)
+     * @param height The canvas height (in pixels)
+     * @param margin The size of a cell (in pixels)
+     */
+    TagCloudOccupancyGrid(int width, int height, int margin) {
+        _cols = (width + margin - 1) / margin;
+        _rows = (height + margin - 1) / margin;
+        _wordsPerRow = (_cols + 63) >>> 6;
+        _bits = new long[_wordsPerRow * _rows];
+        _sat = new int[(_cols + 1) * (_rows + 1)];
+    }
+
+    /**
+     * Checks whether a word can be placed with its top-left cell at the given position, that is,
+     * whether it lies within the canvas and none of its mask cells overlaps an occupied cell
+     *
+     * @param mask The word mask
+     * @param col The column of the word's top-left cell
+     * @param row The row of the word's top-left cell
+     * @return True if the word fits, false otherwise
+     */
+    boolean fits(TagCloudMask mask, int col, int row) {
+        int maskCols = mask.getCols(), maskRows = mask.getRows();
+        if (col + maskCols > _cols || row + maskRows > _rows)
+            return false;
+
+        int occupied = countOccupied(col, row, col + maskCols, row + maskRows);
+        if (occupied == 0)
+            return true;
+        if (occupied == maskCols * maskRows && mask.getSetCells() > 0)
+            return false;
+
+        int shift = col & 63;
+        for (int r = 0; r < maskRows; r++) {
+            int offset = (row + r) * _wordsPerRow + (col >>> 6);
+            int rowEnd = (row + r + 1) * _wordsPerRow;
+
+            for (int w = 0, wMax = mask.getWordsPerRow(); w < wMax; w++) {
+                long maskBits = mask.getWord(r, w);
+                if (maskBits == 0)
+                    continue;
+
+                // the 64 grid cells starting at column col + 64*w
+                int i = offset + w;
+                long gridBits = _bits[i] >>> shift;
+                if (shift != 0 && i + 1 < rowEnd)
+                    gridBits |= _bits[i + 1] << (64 - shift);
+
+                if ((maskBits & gridBits) != 0)
+                    return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Marks the cells covered by a word's mask as occupied.  The word must fit in the grid.
+     *
+     * @param mask The word mask
+     * @param col The column of the word's top-left cell
+     * @param row The row of the word's top-left cell
+     */
+    void occupy(TagCloudMask mask, int col, int row) {
+        int shift = col & 63;
+        for (int r = 0, rMax = mask.getRows(); r < rMax; r++) {
+            int offset = (row + r) * _wordsPerRow + (col >>> 6);
+
+            for (int w = 0, wMax = mask.getWordsPerRow(); w < wMax; w++) {
+                long maskBits = mask.getWord(r, w);
+                if (maskBits == 0)
+                    continue;
+
+                int i = offset + w;
+                _bits[i] |= maskBits << shift;
+                // cells shifted past this long (they exist since the word fits in the grid)
+                if (shift != 0 && (maskBits >>> (64 - shift)) != 0)
+                    _bits[i + 1] |= maskBits >>> (64 - shift);
+            }
+        }
+
+        _satValid = false;
+    }
+
+    /**
+     * Counts the occupied cells in columns [col1,col2) and rows [row1,row2)
+     */
+    private int countOccupied(int col1, int row1, int col2, int row2) {
+        if (!_satValid)
+            rebuildSummedAreaTable();
+
+        int stride = _cols + 1;
+        return _sat[row2 * stride + col2] - _sat[row1 * stride + col2]
+             - _sat[row2 * stride + col1] + _sat[row1 * stride + col1];
+    }
+
+    private void rebuildSummedAreaTable() {
+        int stride = _cols + 1;
+        for (int r = 0; r < _rows; r++) {
+            int rowSum = 0;
+            for (int c = 0; c < _cols; c++) {
+                rowSum += (int) (_bits[r * _wordsPerRow + (c >>> 6)] >>> (c & 63)) & 1;
+                _sat[(r + 1) * stride + c + 1] = _sat[r * stride + c + 1] + rowSum;
+            }
+        }
+
+        _satValid = true;
+    }
+}
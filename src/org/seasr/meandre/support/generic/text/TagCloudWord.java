@@ -0,0 +1,274 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * A word of a tag cloud, rendered with its margin on a white background (optionally rotated
+ * by 90 degrees clockwise), together with its collision mask.
+ *
+ * The pixels are read from and written to the int[] arrays backing the images directly,
+ * avoiding per-pixel getRGB/setRGB calls.
+ */
+class TagCloudWord {
+
+    private final String _text;
+    private final Font _font;
+    private final Color _color;
+    private final boolean _rotated;
+    private final int _baselineX, _baselineY;
+    private final int _width, _height;
+    private final int _margin;
+    private final int[] _pixels;
+    private final TagCloudMask _mask;
+
+    private TagCloudWord(String text, Font font, Color color, boolean rotated,
+            int baselineX, int baselineY, int width, int height, int margin, int[] pixels) {
+        _text = text;
+        _font = font;
+        _color = color;
+        _rotated = rotated;
+        _baselineX = baselineX;
+        _baselineY = baselineY;
+        _width = width;
+        _height = height;
+        _margin = margin;
+        _pixels = pixels;
+        _mask = TagCloudMask.fromPixels(pixels, width, height, margin);
+    }
+
+    /**
+     * Renders a word
+     *
+     * @param text The text to render
+     * @param font The font
+     * @param color The text color
+     * @param rotate True to rotate the word by 90 degrees clockwise
+     * @param frc The font render context used to lay out the text
+     * @param margin The margin around the text (also the size of the mask cells)
+     * @return The rendered word
+     */
+    static TagCloudWord render(String text, Font font, Color color, boolean rotate,
+            FontRenderContext frc, int margin) {
+
+        TextLayout layout = new TextLayout(text, font, frc);
+
+        int w = (int)layout.getVisibleAdvance(),
+            h = (int)(layout.getAscent()+layout.getDescent());
+
+        int textWidth = w+2*margin,
+            textHeight = h+2*margin;
+
+        int xCoord = (textWidth-w)/2,
+            yCoord = (int)layout.getAscent()+(textHeight-h)/2;
+
+        BufferedImage textImage = new BufferedImage(
+                textWidth, textHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D textG2D = textImage.createGraphics();
+
+        textG2D.setColor(Color.white);
+        textG2D.fillRect(0, 0, textWidth-1, textHeight-1);
+        textG2D.setColor(color);
+        textG2D.setFont(font);
+        textG2D.drawString(text, xCoord, yCoord);
+        textG2D.dispose();
+
+        int[] pixels = getPixels(textImage);
+
+        if (rotate) {
+            int[] rotated = new int[pixels.length];
+            for (int j = 0; j < textHeight; j++) {
+                int dst = textHeight - 1 - j;
+                for (int i = 0, src = j * textWidth; i < textWidth; i++, src++, dst += textHeight)
+                    rotated[dst] = pixels[src];
+            }
+
+            return new TagCloudWord(text, font, color, true, xCoord, yCoord,
+                    textHeight, textWidth, margin, rotated);
+        }
+
+        return new TagCloudWord(text, font, color, false, xCoord, yCoord,
+                textWidth, textHeight, margin, pixels);
+    }
+
+    /**
+     * Returns the array backing the pixels of an image of type TYPE_INT_ARGB
+     *
+     * @param image The image
+     * @return The ARGB pixels, row by row (the scanline stride is the image width)
+     */
+    static int[] getPixels(BufferedImage image) {
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Identifies a rendered word: words rendered from equal keys have identical pixels and masks
+     */
+    static class Key {
+        private final String _text;
+        private final String _fontName;
+        private final int _fontStyle;
+        private final float _fontSize;
+        private final int _rgb;
+        private final boolean _rotate;
+        private final int _margin;
+
+        Key(String text, Font font, Color color, boolean rotate, int margin) {
+            _text = text;
+            _fontName = font.getName();
+            _fontStyle = font.getStyle();
+            _fontSize = font.getSize2D();
+            _rgb = color.getRGB();
+            _rotate = rotate;
+            _margin = margin;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null || !(obj instanceof Key))
+                return false;
+
+            Key other = (Key)obj;
+            return _text.equals(other._text) && _fontName.equals(other._fontName) &&
+                   _fontStyle == other._fontStyle && _fontSize == other._fontSize &&
+                   _rgb == other._rgb && _rotate == other._rotate && _margin == other._margin;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = _text.hashCode();
+            hash = 92821 * hash + _fontName.hashCode();
+            hash = 92821 * hash + Float.floatToIntBits(_fontSize) + _fontStyle;
+            hash = 92821 * hash + _rgb;
+            return 2 * hash + (_rotate ? 1 : 0) + 31 * _margin;
+        }
+    }
+
+    String getText() {
+        return _text;
+    }
+
+    Font getFont() {
+        return _font;
+    }
+
+    Color getColor() {
+        return _color;
+    }
+
+    boolean isRotated() {
+        return _rotated;
+    }
+
+    /**
+     * @return The x coordinate of the start of the baseline, before rotation
+     */
+    int getBaselineX() {
+        return _baselineX;
+    }
+
+    /**
+     * @return The y coordinate of the baseline, before rotation
+     */
+    int getBaselineY() {
+        return _baselineY;
+    }
+
+    int getWidth() {
+        return _width;
+    }
+
+    int getHeight() {
+        return _height;
+    }
+
+    TagCloudMask getMask() {
+        return _mask;
+    }
+
+    /**
+     * @return The approximate number of bytes used by the pixels and the mask of the word
+     */
+    long getMemorySize() {
+        return 4L * _pixels.length + 8L * _mask.getRows() * _mask.getWordsPerRow();
+    }
+
+    /**
+     * Copies the pixels of the word covered by its mask onto a canvas
+     *
+     * @param canvas The canvas pixels, row by row
+     * @param canvasWidth The canvas width
+     * @param x The x coordinate of the word's top-left corner on the canvas
+     * @param y The y coordinate of the word's top-left corner on the canvas
+     */
+    void drawTo(int[] canvas, int canvasWidth, int x, int y) {
+        int cols = _mask.getCols();
+
+        for (int j = 0; j < _height; j++) {
+            int row = j / _margin;
+            int src = j * _width;
+            int dst = (y + j) * canvasWidth + x;
+
+            // copy each run of consecutive mask cells at once
+            for (int col = 0; col < cols; col++) {
+                if (!_mask.isSet(col, row))
+                    continue;
+
+                int start = col;
+                while (col + 1 < cols && _mask.isSet(col + 1, row))
+                    col++;
+
+                int i = start * _margin;
+                int len = Math.min((col + 1) * _margin, _width) - i;
+                System.arraycopy(_pixels, src + i, canvas, dst + i, len);
+            }
+        }
+    }
+}
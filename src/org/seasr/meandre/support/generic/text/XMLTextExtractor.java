@@ -0,0 +1,167 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.w3c.dom.Node;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Extracts the text of an XML (or XHTML) document in a single pass, either by walking its DOM
+ * or as a SAX handler while the document is parsed, without serializing and re-parsing it.
+ * The elements are treated as HTML tags, so the text is the same as the one htmlparser's
+ * StringBean produces for the serialized document, except that the text of CDATA sections
+ * is kept and the text inside &lt;pre&gt; is no longer XML-escaped.
+ */
+class XMLTextExtractor extends DefaultHandler {
+
+    private final HTMLTextFlow _flow;
+
+    /**
+     * Creates a SAX handler writing the text of the document being parsed
+     *
+     * @param out The writer receiving the text
+     */
+    XMLTextExtractor(Writer out) {
+        _flow = new HTMLTextFlow(out);
+    }
+
+    /**
+     * Writes the text of a DOM node and its descendants
+     *
+     * @param node The node
+     * @param out The writer receiving the text
+     * @throws IOException Thrown if the text cannot be written
+     */
+    static void extract(Node node, Writer out) throws IOException {
+        HTMLTextFlow flow = new HTMLTextFlow(out);
+
+        // walk the tree without recursion, so that deeply nested documents are not a problem
+        Node current = node;
+        while (current != null) {
+            Node next = null;
+
+            switch (current.getNodeType()) {
+                case Node.ELEMENT_NODE:
+                    flow.startTag(current.getNodeName());
+                    next = current.getFirstChild();
+                    break;
+
+                case Node.DOCUMENT_NODE:
+                case Node.DOCUMENT_FRAGMENT_NODE:
+                case Node.ENTITY_REFERENCE_NODE:
+                    next = current.getFirstChild();
+                    break;
+
+                case Node.TEXT_NODE:
+                case Node.CDATA_SECTION_NODE:
+                    flow.text(current.getNodeValue(), false);
+                    break;
+
+                default:
+                    // comments, processing instructions and document types carry no text
+                    break;
+            }
+
+            // go up until a node with a next sibling is found, closing the elements left
+            while (next == null && current != null) {
+                if (current.getNodeType() == Node.ELEMENT_NODE)
+                    flow.endTag(current.getNodeName());
+
+                if (current == node)
+                    current = null;
+                else {
+                    next = current.getNextSibling();
+                    if (next == null)
+                        current = current.getParentNode();
+                }
+            }
+
+            if (next != null)
+                current = next;
+        }
+
+        flow.flush();
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes)
+        throws SAXException {
+
+        try {
+            _flow.startTag(qName);
+        }
+        catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        _flow.endTag(qName);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        try {
+            _flow.text(new String(ch, start, length), false);
+        }
+        catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        try {
+            _flow.flush();
+        }
+        catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+}
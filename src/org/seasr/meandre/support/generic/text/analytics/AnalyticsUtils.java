@@ -42,8 +42,10 @@
 
 package org.seasr.meandre.support.generic.text.analytics;
 
-import java.util.Hashtable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 import edu.uci.ics.jung.algorithms.importance.AbstractRanker;
@@ -61,38 +63,188 @@ import edu.uci.ics.jung.utils.UserData;
 public abstract class AnalyticsUtils {
 
     public static Graph buildGraph(List<Vector<String>> listAuthors, String userDatum) {
+        return buildGraph(listAuthors, userDatum, null);
+    }
+
+    /**
+     * Builds the co-authorship graph of a collection: the authors are the vertices, and
+     * the authors of a document are connected to each other
+     *
+     * @param listAuthors The authors of each document
+     * @param userDatum The key of the user datum holding the name of the author of each vertex
+     * @param weightKey The key of the user datum holding the number of documents shared by
+     *                  the authors of each edge (an Integer), or null for no weights; an author
+     *                  listed more than once in a document counts once for that document
+     * @return The graph
+     */
+    public static Graph buildGraph(List<Vector<String>> listAuthors, String userDatum, String weightKey) {
+        List<String> authors = new ArrayList<String>();
+        EdgeCounter edges = countCoauthorships(listAuthors, authors);
+
         UndirectedSparseGraph g = new UndirectedSparseGraph();
-        Hashtable<String,UndirectedSparseVertex> htVertex = new Hashtable<String,UndirectedSparseVertex>();
+        UndirectedSparseVertex[] vertices = new UndirectedSparseVertex[authors.size()];
 
-        for ( Vector<String> vec:listAuthors ) {
-            for ( String sAuthor:vec )
-                if ( !htVertex.containsKey(sAuthor) ) {
-                    UndirectedSparseVertex v = new UndirectedSparseVertex();
-                    v.addUserDatum(userDatum, sAuthor, UserData.SHARED);
-                    g.addVertex(v);
-                    htVertex.put(sAuthor, v);
-                }
+        for ( int i=0,iMax=vertices.length ; i<iMax ; i++ ) {
+            UndirectedSparseVertex v = new UndirectedSparseVertex();
+            v.addUserDatum(userDatum, authors.get(i), UserData.SHARED);
+            g.addVertex(v);
+            vertices[i] = v;
+        }
+
+        for ( int i=0,iMax=edges.size() ; i<iMax ; i++ ) {
+            UndirectedSparseEdge e = new UndirectedSparseEdge(vertices[edges.getSource(i)], vertices[edges.getTarget(i)]);
+            if ( weightKey != null )
+                e.addUserDatum(weightKey, edges.getCount(i), UserData.SHARED);
+            g.addEdge(e);
+        }
+
+        return g;
+    }
+
+    /**
+     * Builds the co-authorship graph of a collection in compact form, weighted by
+     * the number of documents shared by the authors of each edge (an author listed
+     * more than once in a document counts once for that document)
+     *
+     * @param listAuthors The authors of each document
+     * @param authors Receives the author of each vertex
+     * @return The graph
+     */
+    public static CompactGraph buildCompactGraph(List<Vector<String>> listAuthors, List<String> authors) {
+        EdgeCounter edges = countCoauthorships(listAuthors, authors);
+        int n = authors.size(), m = edges.size();
+
+        int[] offsets = new int[n + 1];
+        for ( int i=0 ; i<m ; i++ ) {
+            int u = edges.getSource(i), v = edges.getTarget(i);
+            offsets[u + 1]++;
+            if ( u != v )
+                offsets[v + 1]++;
+        }
+        for ( int v=0 ; v<n ; v++ )
+            offsets[v + 1] += offsets[v];
+
+        int[] next = new int[n];
+        System.arraycopy(offsets, 0, next, 0, n);
+        int[] targets = new int[offsets[n]];
+        int[] edgeIds = new int[offsets[n]];
+        int[] weights = new int[m];
+
+        for ( int i=0 ; i<m ; i++ ) {
+            int u = edges.getSource(i), v = edges.getTarget(i);
+            targets[next[u]] = v;
+            edgeIds[next[u]++] = i;
+            if ( u != v ) {
+                targets[next[v]] = u;
+                edgeIds[next[v]++] = i;
+            }
+            weights[i] = edges.getCount(i);
         }
 
+        return new CompactGraph(offsets, targets, edgeIds, m, false, weights);
+    }
+
+    /**
+     * Assigns consecutive ids to the authors, in order of appearance, and counts
+     * the documents shared by each pair of authors.  A document listing an author
+     * more than once counts once for the author's self-loop.
+     */
+    private static EdgeCounter countCoauthorships(List<Vector<String>> listAuthors, List<String> authors) {
+        Map<String,Integer> ids = new HashMap<String,Integer>();
+        EdgeCounter edges = new EdgeCounter();
+        int[] docIds = new int[16];
+        boolean[] repeated = new boolean[16];
+
         for ( Vector<String> vec:listAuthors ) {
-            Object[] oa = vec.toArray();
-            for ( int i=0,iMax=oa.length ; i<iMax ; i++ )
-                for ( int j=i+1,jMax=oa.length ; j<jMax ; j++ ) {
-                    UndirectedSparseEdge e = new UndirectedSparseEdge(htVertex.get(oa[i].toString()), htVertex.get(oa[j].toString()));
-                    try {
-                        g.addEdge(e);
-                    }
-                    catch (Exception exception) {
-                        // The edge was already added
-                    }
+            int nDocAuthors = vec.size();
+            if ( nDocAuthors > docIds.length ) {
+                docIds = new int[Math.max(nDocAuthors, 2 * docIds.length)];
+                repeated = new boolean[docIds.length];
+            }
+
+            // the distinct authors of the document, so that each pair is counted once
+            // per document; an author listed more than once gets a self-loop
+            int k = 0;
+            for ( String sAuthor:vec ) {
+                Integer id = ids.get(sAuthor);
+                if ( id == null ) {
+                    id = authors.size();
+                    ids.put(sAuthor, id);
+                    authors.add(sAuthor);
                 }
+                int i = 0;
+                while ( i<k && docIds[i]!=id )
+                    i++;
+                if ( i == k ) {
+                    docIds[k] = id;
+                    repeated[k++] = false;
+                }
+                else
+                    repeated[i] = true;
+            }
+
+            for ( int i=0 ; i<k ; i++ ) {
+                if ( repeated[i] )
+                    edges.add(docIds[i], docIds[i]);
+                for ( int j=i+1 ; j<k ; j++ )
+                    edges.add(docIds[i], docIds[j]);
+            }
         }
 
-        return g;
+        return edges;
     }
 
+    /**
+     * Ranks the vertices of a graph by betweenness centrality on the calling thread
+     *
+     * @param g The graph
+     * @return The ranker, holding the same scores as JUNG's BetweennessCentrality
+     * @see #computeBetweenness(Graph, int)
+     */
     public static AbstractRanker computeBetweenness(Graph g) {
-        BetweennessCentrality rBC = new BetweennessCentrality(g,true,false);
+        return computeBetweenness(g, 1);
+    }
+
+    /**
+     * Ranks the vertices of a graph by betweenness centrality, computing the shortest paths
+     * from the different vertices in parallel
+     *
+     * @param g The graph
+     * @param nThreads The number of threads to use
+     * @return The ranker, holding the same scores as JUNG's BetweennessCentrality
+     */
+    public static AbstractRanker computeBetweenness(Graph g, int nThreads) {
+        BetweennessCentrality rBC = new ParallelBetweennessCentrality(g,true,false,nThreads);
+        rBC.evaluate();
+        return rBC;
+    }
+
+    /**
+     * Estimates the betweenness centrality of the vertices of a graph from the shortest paths
+     * of a random sample of source vertices, on the calling thread.  See
+     * {@link SampledBetweennessCentrality} for the error bounds.
+     *
+     * @param g The graph
+     * @param nSources The number of source vertices sampled
+     * @param seed The seed of the random sample
+     * @return The ranker, holding the estimated scores
+     */
+    public static AbstractRanker computeApproximateBetweenness(Graph g, int nSources, long seed) {
+        return computeApproximateBetweenness(g, nSources, seed, 1);
+    }
+
+    /**
+     * Estimates the betweenness centrality of the vertices of a graph from the shortest paths
+     * of a random sample of source vertices, computed in parallel
+     *
+     * @param g The graph
+     * @param nSources The number of source vertices sampled
+     * @param seed The seed of the random sample
+     * @param nThreads The number of threads to use
+     * @return The ranker, holding the estimated scores
+     */
+    public static AbstractRanker computeApproximateBetweenness(Graph g, int nSources, long seed, int nThreads) {
+        BetweennessCentrality rBC = new SampledBetweennessCentrality(g,true,false,nSources,seed,nThreads);
         rBC.evaluate();
         return rBC;
     }
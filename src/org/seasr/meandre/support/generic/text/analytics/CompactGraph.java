@@ -0,0 +1,190 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import edu.uci.ics.jung.graph.Edge;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedGraph;
+import edu.uci.ics.jung.graph.Vertex;
+
+/**
+ * An immutable graph over int-indexed vertices, stored in compressed sparse row form:
+ * the neighbors of vertex v are targets[offsets[v]] ... targets[offsets[v+1]-1], and
+ * edges[i] is the index of the edge leading to targets[i].  Undirected edges appear
+ * in the adjacency of both of their endpoints, with the same edge index.
+ *
+ * The arrays are shared, not copied, and must not be modified.
+ */
+public class CompactGraph {
+
+    private final int[] _offsets;
+    private final int[] _targets;
+    private final int[] _edges;
+    private final int _nEdges;
+    private final boolean _directed;
+    private final int[] _weights;
+
+    /**
+     * Creates a graph from its adjacency arrays
+     *
+     * @param offsets The start of the adjacency of each vertex (nVertices + 1 entries)
+     * @param targets The neighbors of the vertices
+     * @param edges The edge index of each adjacency entry
+     * @param nEdges The number of edges
+     * @param directed True if the edges are directed
+     */
+    public CompactGraph(int[] offsets, int[] targets, int[] edges, int nEdges, boolean directed) {
+        this(offsets, targets, edges, nEdges, directed, null);
+    }
+
+    /**
+     * Creates a weighted graph from its adjacency arrays
+     *
+     * @param offsets The start of the adjacency of each vertex (nVertices + 1 entries)
+     * @param targets The neighbors of the vertices
+     * @param edges The edge index of each adjacency entry
+     * @param nEdges The number of edges
+     * @param directed True if the edges are directed
+     * @param weights The weight of each edge (nEdges entries), or null
+     */
+    public CompactGraph(int[] offsets, int[] targets, int[] edges, int nEdges, boolean directed, int[] weights) {
+        if (offsets.length == 0 || offsets[offsets.length - 1] != targets.length)
+            throw new IllegalArgumentException("The offsets do not match the targets");
+        if (edges.length != targets.length)
+            throw new IllegalArgumentException("The edges do not match the targets");
+        if (weights != null && weights.length != nEdges)
+            throw new IllegalArgumentException("The weights do not match the edges");
+
+        _offsets = offsets;
+        _targets = targets;
+        _edges = edges;
+        _nEdges = nEdges;
+        _directed = directed;
+        _weights = weights;
+    }
+
+    /**
+     * Creates the compact form of a JUNG graph
+     *
+     * @param g The graph
+     * @param vertices Receives the vertex at each index (g.numVertices() entries)
+     * @param edges Receives the edge at each index (g.numEdges() entries)
+     * @return The compact graph, undirected if g is an UndirectedGraph
+     */
+    @SuppressWarnings("unchecked")
+    public static CompactGraph fromGraph(Graph g, Vertex[] vertices, Edge[] edges) {
+        Set<Vertex> vertexSet = g.getVertices();
+        Set<Edge> edgeSet = g.getEdges();
+
+        Map<Vertex, Integer> vertexIndex = new HashMap<Vertex, Integer>(vertexSet.size() * 4 / 3 + 1);
+        int n = 0;
+        for (Vertex v : vertexSet) {
+            vertices[n] = v;
+            vertexIndex.put(v, n++);
+        }
+
+        Map<Edge, Integer> edgeIndex = new HashMap<Edge, Integer>(edgeSet.size() * 4 / 3 + 1);
+        int m = 0;
+        for (Edge e : edgeSet) {
+            edges[m] = e;
+            edgeIndex.put(e, m++);
+        }
+
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++)
+            offsets[v + 1] = offsets[v] + vertices[v].getSuccessors().size();
+
+        int[] targets = new int[offsets[n]];
+        int[] edgeIds = new int[offsets[n]];
+        for (int v = 0, i = 0; v < n; v++)
+            for (Vertex w : (Set<Vertex>) vertices[v].getSuccessors()) {
+                targets[i] = vertexIndex.get(w);
+                edgeIds[i++] = edgeIndex.get(vertices[v].findEdge(w));
+            }
+
+        return new CompactGraph(offsets, targets, edgeIds, m, !(g instanceof UndirectedGraph));
+    }
+
+    public int getVertexCount() {
+        return _offsets.length - 1;
+    }
+
+    public int getEdgeCount() {
+        return _nEdges;
+    }
+
+    public boolean isDirected() {
+        return _directed;
+    }
+
+    public boolean isWeighted() {
+        return _weights != null;
+    }
+
+    /**
+     * @return The weight of each edge, or null if the graph is not weighted
+     */
+    public int[] getWeights() {
+        return _weights;
+    }
+
+    public int getDegree(int v) {
+        return _offsets[v + 1] - _offsets[v];
+    }
+
+    public int[] getOffsets() {
+        return _offsets;
+    }
+
+    public int[] getTargets() {
+        return _targets;
+    }
+
+    public int[] getEdges() {
+        return _edges;
+    }
+}
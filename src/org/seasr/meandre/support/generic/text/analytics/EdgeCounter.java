@@ -0,0 +1,141 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text.analytics;
+
+/**
+ * Counts the occurrences of the undirected edges between int-indexed vertices, using an open
+ * addressing hash table over the edges packed in a long.  The edges are kept in the order
+ * they were first added.
+ */
+class EdgeCounter {
+
+    private long[] _edges = new long[16];
+    private int[] _counts = new int[16];
+    private int[] _table = new int[32];   // 1 + the index of the edge in each slot, 0 if empty
+    private int _size;
+
+    /**
+     * Adds an occurrence of an edge
+     *
+     * @param u One end of the edge
+     * @param v The other end of the edge
+     * @return True if the edge was not added before
+     */
+    boolean add(int u, int v) {
+        long edge = (u < v) ? ((long) u << 32) | v : ((long) v << 32) | u;
+
+        int mask = _table.length - 1;
+        int slot = hash(edge) & mask;
+        for (int index; (index = _table[slot]) != 0; slot = (slot + 1) & mask)
+            if (_edges[index - 1] == edge) {
+                _counts[index - 1]++;
+                return false;
+            }
+
+        if (_size == _edges.length) {
+            long[] edges = new long[2 * _size];
+            System.arraycopy(_edges, 0, edges, 0, _size);
+            _edges = edges;
+            int[] counts = new int[2 * _size];
+            System.arraycopy(_counts, 0, counts, 0, _size);
+            _counts = counts;
+        }
+
+        _edges[_size] = edge;
+        _counts[_size] = 1;
+        _table[slot] = ++_size;
+
+        // keep the table at most half full
+        if (2 * _size > _table.length)
+            rehash();
+
+        return true;
+    }
+
+    int size() {
+        return _size;
+    }
+
+    /**
+     * @return The smaller end of the i-th edge
+     */
+    int getSource(int i) {
+        return (int) (_edges[i] >>> 32);
+    }
+
+    /**
+     * @return The larger end of the i-th edge
+     */
+    int getTarget(int i) {
+        return (int) _edges[i];
+    }
+
+    /**
+     * @return The number of times the i-th edge was added
+     */
+    int getCount(int i) {
+        return _counts[i];
+    }
+
+    private void rehash() {
+        int[] table = new int[2 * _table.length];
+        int mask = table.length - 1;
+        for (int i = 0; i < _size; i++) {
+            int slot = hash(_edges[i]) & mask;
+            while (table[slot] != 0)
+                slot = (slot + 1) & mask;
+            table[slot] = i + 1;
+        }
+        _table = table;
+    }
+
+    private static int hash(long key) {
+        // the 64-bit finalizer of MurmurHash3, folded to 32 bits
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
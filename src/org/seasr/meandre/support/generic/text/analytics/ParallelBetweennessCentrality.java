@@ -0,0 +1,297 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.uci.ics.jung.algorithms.importance.BetweennessCentrality;
+import edu.uci.ics.jung.graph.Edge;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.Vertex;
+
+/**
+ * Betweenness centrality computed with Brandes' algorithm over a {@link CompactGraph},
+ * distributing the single-source shortest path computations over a pool of threads.
+ *
+ * This ranker is a drop-in replacement for JUNG's {@link BetweennessCentrality}: it stores
+ * the same scores (up to floating point rounding) under the same key, and produces
+ * the same rankings.
+ */
+public class ParallelBetweennessCentrality extends BetweennessCentrality {
+
+    private final int _nThreads;
+
+    public ParallelBetweennessCentrality(Graph g) {
+        this(g, true, true);
+    }
+
+    public ParallelBetweennessCentrality(Graph g, boolean rankNodes) {
+        this(g, rankNodes, true);
+    }
+
+    public ParallelBetweennessCentrality(Graph g, boolean rankNodes, boolean rankEdges) {
+        this(g, rankNodes, rankEdges, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates the ranker
+     *
+     * @param g The graph
+     * @param rankNodes True to rank the vertices
+     * @param rankEdges True to rank the edges
+     * @param nThreads The number of threads to use
+     */
+    public ParallelBetweennessCentrality(Graph g, boolean rankNodes, boolean rankEdges, int nThreads) {
+        super(g, rankNodes, rankEdges);
+
+        if (nThreads <= 0)
+            throw new IllegalArgumentException("" + nThreads);
+
+        _nThreads = nThreads;
+    }
+
+    public int getThreads() {
+        return _nThreads;
+    }
+
+    @Override
+    protected void computeBetweenness(Graph g) {
+        Vertex[] vertices = new Vertex[g.numVertices()];
+        Edge[] edges = new Edge[g.numEdges()];
+        CompactGraph graph = CompactGraph.fromGraph(g, vertices, edges);
+
+        double[] vertexScores = new double[vertices.length];
+        double[] edgeScores = isRankingEdges() ? new double[edges.length] : null;
+        int[] sources = selectSources(vertices.length);
+
+        try {
+            computeBetweenness(graph, sources, vertexScores, edgeScores, _nThreads);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        // extrapolate the dependencies of the selected sources to all the vertices
+        if (sources != null && sources.length > 0) {
+            double scale = (double) vertices.length / sources.length;
+            for (int v = 0; v < vertexScores.length; v++)
+                vertexScores[v] *= scale;
+            if (edgeScores != null)
+                for (int e = 0; e < edgeScores.length; e++)
+                    edgeScores[e] *= scale;
+        }
+
+        if (isRankingNodes())
+            for (int v = 0; v < vertices.length; v++)
+                setRankScore(vertices[v], vertexScores[v]);
+
+        if (isRankingEdges())
+            for (int e = 0; e < edges.length; e++)
+                setRankScore(edges[e], edgeScores[e]);
+    }
+
+    /**
+     * Selects the vertices from which the shortest paths are computed; the scores are scaled
+     * by nVertices / sources.length to estimate the contribution of all the vertices
+     *
+     * @param nVertices The number of vertices
+     * @return The indices of the source vertices, or null to use all of them (exact betweenness)
+     */
+    protected int[] selectSources(int nVertices) {
+        return null;
+    }
+
+    /**
+     * Computes the betweenness centrality of the vertices (and edges) of a graph, summing the
+     * dependencies accumulated from the given source vertices.  For undirected graphs the scores
+     * are halved, as every shortest path is found from both of its ends.  The result depends
+     * only on the sources and on the number of threads, not on the scheduling of the threads.
+     *
+     * @param graph The graph
+     * @param sources The source vertices, or null for all the vertices
+     * @param vertexScores Receives the vertex scores (graph.getVertexCount() entries)
+     * @param edgeScores Receives the edge scores (graph.getEdgeCount() entries), or null
+     * @param nThreads The number of threads to use
+     * @throws InterruptedException Thrown if interrupted while waiting for the computation
+     */
+    public static void computeBetweenness(CompactGraph graph, int[] sources,
+            double[] vertexScores, double[] edgeScores, int nThreads) throws InterruptedException {
+
+        int nSources = (sources != null) ? sources.length : graph.getVertexCount();
+        int nTasks = Math.max(1, Math.min(nThreads, nSources));
+
+        List<BrandesTask> tasks = new ArrayList<BrandesTask>(nTasks);
+        for (int t = 0; t < nTasks; t++)
+            tasks.add(new BrandesTask(graph, sources, t, nTasks, edgeScores != null));
+
+        if (nTasks == 1)
+            tasks.get(0).call();
+        else {
+            ExecutorService executor = Executors.newFixedThreadPool(nTasks);
+            try {
+                for (Future<BrandesTask> future : executor.invokeAll(tasks))
+                    future.get();
+            }
+            catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+
+        // the partial scores are summed in a fixed order
+        double scale = graph.isDirected() ? 1.0 : 0.5;
+
+        for (int v = 0; v < vertexScores.length; v++) {
+            double score = 0;
+            for (BrandesTask task : tasks)
+                score += task._vertexScores[v];
+            vertexScores[v] = score * scale;
+        }
+
+        if (edgeScores != null)
+            for (int e = 0; e < edgeScores.length; e++) {
+                double score = 0;
+                for (BrandesTask task : tasks)
+                    score += task._edgeScores[e];
+                edgeScores[e] = score * scale;
+            }
+    }
+
+    //--------------------------------------------------------------------------------------------
+
+    /**
+     * Accumulates the dependencies from every nTasks-th source, starting with the task-th one
+     */
+    private static class BrandesTask implements Callable<BrandesTask> {
+        private final CompactGraph _graph;
+        private final int[] _sources;
+        private final int _first, _step;
+        private final double[] _vertexScores;
+        private final double[] _edgeScores;
+
+        public BrandesTask(CompactGraph graph, int[] sources, int first, int step, boolean rankEdges) {
+            _graph = graph;
+            _sources = sources;
+            _first = first;
+            _step = step;
+            _vertexScores = new double[graph.getVertexCount()];
+            _edgeScores = rankEdges ? new double[graph.getEdgeCount()] : null;
+        }
+
+        public BrandesTask call() {
+            int n = _graph.getVertexCount();
+            int[] offsets = _graph.getOffsets();
+            int[] targets = _graph.getTargets();
+            int[] edges = _graph.getEdges();
+
+            int[] distance = new int[n];
+            double[] nPaths = new double[n];
+            double[] dependency = new double[n];
+            int[] order = new int[n];   // the vertices in the order they are reached
+
+            Arrays.fill(distance, -1);
+
+            int nSources = (_sources != null) ? _sources.length : n;
+            for (int i = _first; i < nSources; i += _step) {
+                int s = (_sources != null) ? _sources[i] : i;
+
+                // breadth-first search, counting the shortest paths
+                distance[s] = 0;
+                nPaths[s] = 1;
+                order[0] = s;
+                int head = 0, tail = 1;
+                while (head < tail) {
+                    int v = order[head++];
+                    int next = distance[v] + 1;
+                    for (int j = offsets[v], end = offsets[v + 1]; j < end; j++) {
+                        int w = targets[j];
+                        if (distance[w] < 0) {
+                            distance[w] = next;
+                            order[tail++] = w;
+                        }
+                        if (distance[w] == next)
+                            nPaths[w] += nPaths[v];
+                    }
+                }
+
+                // dependency accumulation, from the farthest vertices back to the source
+                for (int k = tail - 1; k >= 0; k--) {
+                    int v = order[k];
+                    int next = distance[v] + 1;
+                    double d = 0;
+                    for (int j = offsets[v], end = offsets[v + 1]; j < end; j++) {
+                        int w = targets[j];
+                        if (distance[w] == next) {
+                            double partial = nPaths[v] / nPaths[w] * (1 + dependency[w]);
+                            d += partial;
+                            if (_edgeScores != null)
+                                _edgeScores[edges[j]] += partial;
+                        }
+                    }
+                    dependency[v] = d;
+                    if (v != s)
+                        _vertexScores[v] += d;
+                }
+
+                for (int k = 0; k < tail; k++) {
+                    int v = order[k];
+                    distance[v] = -1;
+                    nPaths[v] = 0;
+                    dependency[v] = 0;
+                }
+            }
+
+            return this;
+        }
+    }
+}
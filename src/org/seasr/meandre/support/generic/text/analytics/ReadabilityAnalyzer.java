@@ -0,0 +1,357 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text.analytics;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.seasr.meandre.support.generic.text.SyntacticUtils;
+
+/**
+ * Computes the Flesch readability counts (syllables, words, sentences) of a text in a single
+ * pass, consuming it incrementally as characters, chunks or from a Reader.  Only a few counters
+ * are kept, so the memory used is constant regardless of the size of the text.
+ *
+ * The words and sentences are delimited the same way as in
+ * {@link ReadabilityMeasure#computeFleschReadabilityMeasure(String)}, so analyzing a text with
+ * this class yields the same measure.
+ *
+ * Instances are not thread-safe.  To use several threads, analyze consecutive chunks of the same
+ * text separately and join the results in order with {@link #concat(ReadabilityAnalyzer)}, which
+ * correctly accounts for words and sentences spanning chunk boundaries, or analyze different texts
+ * separately and add up the results with {@link #merge(ReadabilityAnalyzer)}.
+ */
+public class ReadabilityAnalyzer {
+
+    /** Characters separating words */
+    public static final String WORD_DELIMITERS = ".,':;?{}[]=-+_!@#$%^&*() ";
+
+    /** Characters separating sentences */
+    public static final String SENTENCE_DELIMITERS = ".:;?!";
+
+    private static final boolean[] IS_WORD_DELIMITER = new boolean[128];
+    private static final boolean[] IS_SENTENCE_DELIMITER = new boolean[128];
+
+    static {
+        for (char c : WORD_DELIMITERS.toCharArray())
+            IS_WORD_DELIMITER[c] = true;
+
+        for (char c : SENTENCE_DELIMITERS.toCharArray())
+            IS_SENTENCE_DELIMITER[c] = true;
+    }
+
+    private int _syllables = 0;
+    private int _words = 0;
+    private int _sentences = 0;
+
+    // state of the word currently being read
+    private boolean _inWord = false;
+    private int _wordSyllables;
+    private boolean _prevVowel;
+    private char _lastChar;
+
+    // true if the last character read belongs to a sentence
+    private boolean _inSentence = false;
+
+    // state of the beginning of the text, used to join words and sentences in concat()
+    private boolean _empty = true;
+    private boolean _startsInWord;
+    private boolean _startsWithVowel;
+    private boolean _startsInSentence;
+    private boolean _headOpen = false;  // true while the word the text starts with has not ended
+    private int _headSyllables;         // vowel groups of the word the text starts with, once ended
+    private char _headLastChar;
+
+    /**
+     * Analyzes the next character of the text
+     *
+     * @param c The character
+     */
+    public void update(char c) {
+        if (_empty) {
+            _empty = false;
+            _startsInSentence = !(c < 128 && IS_SENTENCE_DELIMITER[c]);
+            _startsInWord = _headOpen = !(c < 128 && IS_WORD_DELIMITER[c]);
+            _startsWithVowel = SyntacticUtils.isVowel(c);
+        }
+
+        if (c < 128 && IS_SENTENCE_DELIMITER[c])
+            _inSentence = false;
+        else
+        if (!_inSentence) {
+            _inSentence = true;
+            _sentences++;
+        }
+
+        if (c < 128 && IS_WORD_DELIMITER[c]) {
+            if (_inWord)
+                endWord();
+        }
+        else {
+            if (!_inWord) {
+                _inWord = true;
+                _wordSyllables = 0;
+                _prevVowel = false;
+            }
+
+            // count groups of consecutive vowels
+            boolean vowel = SyntacticUtils.isVowel(c);
+            if (vowel && !_prevVowel)
+                _wordSyllables++;
+
+            _prevVowel = vowel;
+            _lastChar = c;
+        }
+    }
+
+    /**
+     * Analyzes the next chunk of the text
+     *
+     * @param cbuf The buffer holding the chunk
+     * @param offset The offset of the chunk in the buffer
+     * @param length The length of the chunk
+     */
+    public void update(char[] cbuf, int offset, int length) {
+        for (int i = offset, iMax = offset + length; i < iMax; i++)
+            update(cbuf[i]);
+    }
+
+    /**
+     * Analyzes the next chunk of the text
+     *
+     * @param text The sequence holding the chunk
+     * @param start The start of the chunk (inclusive)
+     * @param end The end of the chunk (exclusive)
+     */
+    public void update(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++)
+            update(text.charAt(i));
+    }
+
+    /**
+     * Analyzes the next chunk of the text
+     *
+     * @param text The chunk
+     */
+    public void update(CharSequence text) {
+        update(text, 0, text.length());
+    }
+
+    /**
+     * Analyzes the text read from a Reader, until the end of the stream is reached.
+     * The reader is not closed.
+     *
+     * @param reader The reader
+     * @throws IOException Thrown if a problem occurs while reading
+     */
+    public void update(Reader reader) throws IOException {
+        char[] cbuf = new char[8192];
+        int nRead;
+
+        while ((nRead = reader.read(cbuf)) != -1)
+            update(cbuf, 0, nRead);
+    }
+
+    /**
+     * Appends the analysis of the chunk of text immediately following the one analyzed by this
+     * analyzer, as if the chunk had been fed to this analyzer.  A word or sentence spanning the
+     * boundary between the two chunks is counted once.  The operation is associative, so
+     * consecutive chunks can be analyzed in parallel and joined in any grouping, as long as
+     * their order is preserved.
+     *
+     * @param next The analyzer of the following chunk (left unchanged)
+     * @return This analyzer
+     */
+    public ReadabilityAnalyzer concat(ReadabilityAnalyzer next) {
+        if (next._empty)
+            return this;
+
+        if (_empty) {
+            copyFrom(next);
+            return this;
+        }
+
+        if (_inWord && next._startsInWord) {
+            // the word in progress continues at the beginning of the next chunk
+            int nextHeadSyllables = next._headOpen ? next._wordSyllables : next._headSyllables;
+            int syllables = _wordSyllables + nextHeadSyllables;
+            if (_prevVowel && next._startsWithVowel)
+                syllables--;  // the vowel group spans the boundary
+
+            if (next._headOpen) {
+                // the next chunk is entirely made of this word, which is still in progress
+                _wordSyllables = syllables;
+                _prevVowel = next._prevVowel;
+                _lastChar = next._lastChar;
+            }
+            else {
+                // the word ends inside the next chunk, which already counted it once
+                if (_headOpen) {
+                    _headOpen = false;
+                    _headSyllables = syllables;
+                    _headLastChar = next._headLastChar;
+                }
+
+                _syllables += next._syllables
+                    - SyntacticUtils.adjustForFinalE(nextHeadSyllables, next._headLastChar)
+                    + SyntacticUtils.adjustForFinalE(syllables, next._headLastChar);
+                _words += next._words;
+                copyWordFrom(next);
+            }
+        }
+        else {
+            if (_inWord)
+                endWord();
+
+            _syllables += next._syllables;
+            _words += next._words;
+            copyWordFrom(next);
+        }
+
+        _sentences += next._sentences;
+        if (_inSentence && next._startsInSentence)
+            _sentences--;  // the sentence spans the boundary
+
+        _inSentence = next._inSentence;
+
+        return this;
+    }
+
+    /**
+     * Adds the counts of a separately analyzed text to this one.  The two texts are treated
+     * as distinct documents: a word in progress at the end of either text is considered complete.
+     * Use {@link #concat(ReadabilityAnalyzer)} to join chunks of the same text.
+     *
+     * @param other The analyzer of the other text
+     * @return This analyzer
+     */
+    public ReadabilityAnalyzer merge(ReadabilityAnalyzer other) {
+        if (other._empty)
+            return this;
+
+        if (_inWord)
+            endWord();
+
+        if (_empty) {
+            // nothing to join with at the beginning of a merged text
+            _empty = false;
+            _startsInWord = _startsInSentence = false;
+        }
+
+        _syllables += other.getSyllables();
+        _words += other.getWords();
+        _sentences += other._sentences;
+        _inSentence = false;
+
+        return this;
+    }
+
+    /**
+     * @return The number of syllables seen so far (including those of a word in progress)
+     */
+    public int getSyllables() {
+        return _inWord ? _syllables + pendingSyllables() : _syllables;
+    }
+
+    /**
+     * @return The number of words seen so far (including a word in progress)
+     */
+    public int getWords() {
+        return _inWord ? _words + 1 : _words;
+    }
+
+    /**
+     * @return The number of sentences seen so far (including a sentence in progress)
+     */
+    public int getSentences() {
+        return _sentences;
+    }
+
+    /**
+     * Computes the readability measure of the text analyzed so far.  More text can still be
+     * analyzed afterwards.
+     *
+     * @return The readability measure
+     */
+    public ReadabilityMeasure getMeasure() {
+        return ReadabilityMeasure.fromCounts(getSyllables(), getWords(), getSentences());
+    }
+
+    private int pendingSyllables() {
+        return SyntacticUtils.adjustForFinalE(_wordSyllables, _lastChar);
+    }
+
+    private void endWord() {
+        if (_headOpen) {
+            _headOpen = false;
+            _headSyllables = _wordSyllables;
+            _headLastChar = _lastChar;
+        }
+
+        _syllables += pendingSyllables();
+        _words++;
+        _inWord = false;
+    }
+
+    private void copyWordFrom(ReadabilityAnalyzer other) {
+        _inWord = other._inWord;
+        _wordSyllables = other._wordSyllables;
+        _prevVowel = other._prevVowel;
+        _lastChar = other._lastChar;
+    }
+
+    private void copyFrom(ReadabilityAnalyzer other) {
+        _syllables = other._syllables;
+        _words = other._words;
+        _sentences = other._sentences;
+        copyWordFrom(other);
+        _inSentence = other._inSentence;
+        _empty = other._empty;
+        _startsInWord = other._startsInWord;
+        _startsWithVowel = other._startsWithVowel;
+        _startsInSentence = other._startsInSentence;
+        _headOpen = other._headOpen;
+        _headSyllables = other._headSyllables;
+        _headLastChar = other._headLastChar;
+    }
+}
@@ -42,9 +42,15 @@
 
 package org.seasr.meandre.support.generic.text.analytics;
 
-import java.util.StringTokenizer;
-
-import org.seasr.meandre.support.generic.text.SyntacticUtils;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author Boris Capitanu
@@ -52,6 +58,9 @@ import org.seasr.meandre.support.generic.text.SyntacticUtils;
  */
 public class ReadabilityMeasure {
 
+    /** The minimum number of characters analyzed by one task of a parallel computation */
+    public static final int MIN_PARALLEL_CHUNK_SIZE = 64 * 1024;
+
     private final int totalSyllables;
     private final int totalWords;
     private final int totalSentences;
@@ -86,25 +95,114 @@ public class ReadabilityMeasure {
         return fleschGradeLevel;
     }
 
+    /**
+     * Computes the Flesch readability measure of a text
+     *
+     * @param content The text
+     * @return The readability measure
+     */
     public static ReadabilityMeasure computeFleschReadabilityMeasure(String content) {
-        int syllables = 0;
-        int sentences = 0;
-        int words     = 0;
-
-        String delimiters = ".,':;?{}[]=-+_!@#$%^&*() ";
-        StringTokenizer tokenizer = new StringTokenizer(content,delimiters);
-        //go through all words
-        while (tokenizer.hasMoreTokens())
-        {
-            String word = tokenizer.nextToken();
-            syllables += SyntacticUtils.countSyllables(word);
-            words++;
+        ReadabilityAnalyzer analyzer = new ReadabilityAnalyzer();
+        analyzer.update(content);
+
+        return analyzer.getMeasure();
+    }
+
+    /**
+     * Computes the Flesch readability measure of a text read from a Reader, in a single pass
+     * and using constant memory. The reader is not closed.
+     *
+     * @param reader The reader
+     * @return The readability measure
+     * @throws IOException Thrown if a problem occurs while reading
+     */
+    public static ReadabilityMeasure computeFleschReadabilityMeasure(Reader reader) throws IOException {
+        ReadabilityAnalyzer analyzer = new ReadabilityAnalyzer();
+        analyzer.update(reader);
+
+        return analyzer.getMeasure();
+    }
+
+    /**
+     * Computes the Flesch readability measure of a text by splitting it in chunks that are
+     * analyzed in parallel using a newly created thread pool.  The result is identical to the one
+     * computed by {@link #computeFleschReadabilityMeasure(String)}.
+     *
+     * @param content The text
+     * @param nThreads The number of threads to use
+     * @return The readability measure
+     * @throws InterruptedException Thrown if interrupted while waiting for the computation
+     */
+    public static ReadabilityMeasure computeFleschReadabilityMeasure(CharSequence content, int nThreads)
+        throws InterruptedException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            return computeFleschReadabilityMeasure(content, executor, nThreads);
         }
-        //look for sentence delimiters
-        String sentenceDelim = ".:;?!";
-        StringTokenizer sentenceTokenizer = new StringTokenizer(content,sentenceDelim);
-        sentences = sentenceTokenizer.countTokens();
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Computes the Flesch readability measure of a text by splitting it in chunks that are
+     * analyzed in parallel by an executor.  The result is identical to the one computed by
+     * {@link #computeFleschReadabilityMeasure(String)}.
+     *
+     * @param content The text
+     * @param executor The executor running the analysis of the chunks
+     * @param parallelism The number of threads of the executor
+     * @return The readability measure
+     * @throws InterruptedException Thrown if interrupted while waiting for the computation
+     */
+    public static ReadabilityMeasure computeFleschReadabilityMeasure(final CharSequence content,
+            ExecutorService executor, int parallelism) throws InterruptedException {
+
+        int length = content.length();
+        // a few chunks per thread even out the load, but chunks should not be too small
+        int nChunks = Math.max(1, Math.min(4 * parallelism, length / MIN_PARALLEL_CHUNK_SIZE));
+        int chunkSize = (length + nChunks - 1) / Math.max(1, nChunks);
+
+        List<Future<ReadabilityAnalyzer>> futures = new ArrayList<Future<ReadabilityAnalyzer>>(nChunks);
+        for (int start = 0; start < length; start += chunkSize) {
+            final int chunkStart = start;
+            final int chunkEnd = Math.min(length, start + chunkSize);
+
+            futures.add(executor.submit(new Callable<ReadabilityAnalyzer>() {
+                public ReadabilityAnalyzer call() {
+                    ReadabilityAnalyzer analyzer = new ReadabilityAnalyzer();
+                    analyzer.update(content, chunkStart, chunkEnd);
+                    return analyzer;
+                }
+            }));
+        }
+
+        ReadabilityAnalyzer result = new ReadabilityAnalyzer();
+        try {
+            for (Future<ReadabilityAnalyzer> future : futures)
+                result.concat(future.get());
+        }
+        catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        finally {
+            for (Future<ReadabilityAnalyzer> future : futures)
+                future.cancel(true);
+        }
+
+        return result.getMeasure();
+    }
 
+    /**
+     * Computes the Flesch reading ease score and grade level from the text counts
+     *
+     * @param syllables The number of syllables
+     * @param words The number of words
+     * @param sentences The number of sentences
+     * @return The readability measure
+     */
+    public static ReadabilityMeasure fromCounts(int syllables, int words, int sentences) {
         //calculate flesch reading ease score
         final float f1 = (float) 206.835;
         final float f2 = (float) 84.6;
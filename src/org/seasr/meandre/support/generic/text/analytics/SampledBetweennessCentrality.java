@@ -0,0 +1,128 @@
+/**
+*
+* University of Illinois/NCSA
+* Open Source License
+*
+* Copyright (c) 2008, NCSA.  All rights reserved.
+*
+* Developed by:
+* The Automated Learning Group
+* University of Illinois at Urbana-Champaign
+* http://www.seasr.org
+*
+* Permission is hereby granted, free of charge, to any person obtaining
+* a copy of this software and associated documentation files (the
+* "Software"), to deal with the Software without restriction, including
+* without limitation the rights to use, copy, modify, merge, publish,
+* distribute, sublicense, and/or sell copies of the Software, and to
+* permit persons to whom the Software is furnished to do so, subject
+* to the following conditions:
+*
+* Redistributions of source code must retain the above copyright
+* notice, this list of conditions and the following disclaimers.
+*
+* Redistributions in binary form must reproduce the above copyright
+* notice, this list of conditions and the following disclaimers in
+* the documentation and/or other materials provided with the distribution.
+*
+* Neither the names of The Automated Learning Group, University of
+* Illinois at Urbana-Champaign, nor the names of its contributors may
+* be used to endorse or promote products derived from this Software
+* without specific prior written permission.
+*
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+* EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+* MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+* IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+* FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+* CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+* WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+*
+*/
+
+package org.seasr.meandre.support.generic.text.analytics;
+
+import java.util.Random;
+
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * Approximate betweenness centrality, computed from the shortest paths of a random sample
+ * of k source vertices (pivots) and scaled by n/k (Brandes and Pich, 2007).
+ *
+ * The estimate is unbiased.  Each source contributes a dependency between 0 and n-2 to
+ * a vertex, so by Hoeffding's inequality (which also holds when sampling without replacement)
+ * the error of the score of a given vertex exceeds
+ * <pre>    n (n-2) sqrt(ln(2/delta) / (2k))</pre>
+ * with probability at most delta; the bound holds for all the vertices at once when
+ * ln(2/delta) is replaced by ln(2n/delta).  For undirected graphs, whose scores are halved,
+ * the bound is halved as well.  In relative terms, scores normalized by n(n-1) are within
+ * about sqrt(ln(2n/delta) / (2k)) of the exact ones: k = 3500 pivots give an error below 0.05
+ * on all the vertices of a 100,000 vertex graph with probability 99%.
+ *
+ * The sample only depends on the seed and on the number of vertices, so repeated runs on
+ * the same graph instance with the same number of threads give the same scores.
+ */
+public class SampledBetweennessCentrality extends ParallelBetweennessCentrality {
+
+    private final int _nSources;
+    private final long _seed;
+
+    public SampledBetweennessCentrality(Graph g, int nSources, long seed) {
+        this(g, true, false, nSources, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates the ranker
+     *
+     * @param g The graph
+     * @param rankNodes True to rank the vertices
+     * @param rankEdges True to rank the edges
+     * @param nSources The number of source vertices sampled (all the vertices are used
+     *                 if the graph has no more than nSources vertices)
+     * @param seed The seed of the random sample
+     * @param nThreads The number of threads to use
+     */
+    public SampledBetweennessCentrality(Graph g, boolean rankNodes, boolean rankEdges,
+            int nSources, long seed, int nThreads) {
+        super(g, rankNodes, rankEdges, nThreads);
+
+        if (nSources <= 0)
+            throw new IllegalArgumentException("" + nSources);
+
+        _nSources = nSources;
+        _seed = seed;
+    }
+
+    public int getSampleSize() {
+        return _nSources;
+    }
+
+    public long getSeed() {
+        return _seed;
+    }
+
+    @Override
+    protected int[] selectSources(int nVertices) {
+        if (nVertices <= _nSources)
+            return null;
+
+        // partial Fisher-Yates shuffle
+        Random random = new Random(_seed);
+        int[] vertices = new int[nVertices];
+        for (int v = 0; v < nVertices; v++)
+            vertices[v] = v;
+
+        for (int i = 0; i < _nSources; i++) {
+            int j = i + random.nextInt(nVertices - i);
+            int v = vertices[j];
+            vertices[j] = vertices[i];
+            vertices[i] = v;
+        }
+
+        int[] sources = new int[_nSources];
+        System.arraycopy(vertices, 0, sources, 0, _nSources);
+
+        return sources;
+    }
+}
@@ -44,11 +44,10 @@ package org.seasr.meandre.support.generic.text.handlers;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URLConnection;
 import java.nio.charset.Charset;
 
-import org.htmlparser.util.ParserException;
-import org.seasr.meandre.support.generic.io.IOUtils;
 import org.seasr.meandre.support.generic.text.HTMLUtils;
 
 
@@ -59,13 +58,14 @@ import org.seasr.meandre.support.generic.text.HTMLUtils;
 public class HTMLTextContentHandler extends XMLTextContentHandler {
     @Override
     public Object getContent(URLConnection connection) throws IOException {
+        Reader reader = new InputStreamReader(connection.getInputStream(), Charset.forName("UTF-8"));
         try {
-            return HTMLUtils.extractText(
-                    IOUtils.getTextFromReader(
-                            new InputStreamReader(connection.getInputStream(), Charset.forName("UTF-8"))));
+            String text = HTMLUtils.extractText(reader);
+            // like htmlparser's StringBean, no text is returned as null
+            return (text.length() > 0) ? text : null;
         }
-        catch (ParserException e) {
-            throw new IOException(e.toString());
+        finally {
+            reader.close();
         }
     }
 }
@@ -60,7 +60,12 @@ public class PDFTextContentHandler extends ContentHandler {
     @Override
     public Object getContent(URLConnection connection) throws IOException {
         PDDocument document = (PDDocument) new PDFContentHandler().getContent(connection);
-        return PDFUtils.extractText(document);
+        try {
+            return PDFUtils.extractText(document);
+        }
+        finally {
+            document.close();
+        }
     }
 
 }
@@ -46,7 +46,6 @@ import java.io.IOException;
 import java.net.ContentHandler;
 import java.net.URLConnection;
 
-import org.seasr.meandre.support.generic.io.DOMUtils;
 import org.seasr.meandre.support.generic.text.HTMLUtils;
 
 /**
@@ -58,8 +57,7 @@ public class XMLTextContentHandler extends ContentHandler {
     @Override
     public Object getContent(URLConnection connection) throws IOException {
         try {
-            return HTMLUtils.extractText(
-                    DOMUtils.createDocument(connection.getInputStream()));
+            return HTMLUtils.extractXMLText(connection.getInputStream());
         }
         catch (Exception e) {
             throw new IOException(e.toString());
@@ -0,0 +1,107 @@
+/**
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, Board of Trustees-University of Illinois.
+ * All rights reserved.
+ *
+ * Developed by:
+ *
+ * Automated Learning Group
+ * National Center for Supercomputing Applications
+ * http://www.seasr.org
+ *
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal with the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimers.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimers in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the names of Automated Learning Group, The National Center for
+ *    Supercomputing Applications, or University of Illinois, nor the names of
+ *    its contributors may be used to endorse or promote products derived from
+ *    this Software without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+ * CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.text.stemming;
+
+import org.seasr.meandre.support.generic.util.BoundedCache;
+
+/**
+ * A stemming service that memoizes the stems computed by another
+ * stemming service in a bounded LRU cache.
+ *
+ * Word frequencies follow Zipf's law, so a cache of a few thousand
+ * entries typically answers most lookups; use getCache() to inspect the
+ * hit/miss/eviction counters when sizing it.  The cache itself is
+ * thread-safe, so this service can be shared between threads as long as
+ * the wrapped service is too (see ConcurrentStemmingService).
+ */
+public class CachingStemmingService implements StemmingService
+{
+
+	public static final int DEFAULT_CACHE_SIZE = 10000;
+
+	private final StemmingService stemmer;
+	private final BoundedCache<String, String> cache;
+
+	public CachingStemmingService(StemmingService stemmer)
+	{
+		this(stemmer, DEFAULT_CACHE_SIZE);
+	}
+
+	public CachingStemmingService(StemmingService stemmer, int cacheSize)
+	{
+		this(stemmer, new BoundedCache<String, String>(cacheSize));
+	}
+
+	public CachingStemmingService(StemmingService stemmer, BoundedCache<String, String> cache)
+	{
+		this.stemmer = stemmer;
+		this.cache = cache;
+	}
+
+	public String getStem(String fromThisWord)
+	{
+		String stem = cache.get(fromThisWord);
+		if (stem == null) {
+			stem = stemmer.getStem(fromThisWord);
+			cache.put(fromThisWord, stem);
+		}
+		return stem;
+	}
+
+	public String[] stemAll(String[] tokens)
+	{
+		for (int t = 0; t < tokens.length; t++) {
+			tokens[t] = getStem(tokens[t]);
+		}
+		return tokens;
+	}
+
+	/**
+	 * @return The cache (use it to read the hit/miss/eviction statistics)
+	 */
+	public BoundedCache<String, String> getCache()
+	{
+		return cache;
+	}
+
+}
@@ -0,0 +1,119 @@
+/**
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, Board of Trustees-University of Illinois.
+ * All rights reserved.
+ *
+ * Developed by:
+ *
+ * Automated Learning Group
+ * National Center for Supercomputing Applications
+ * http://www.seasr.org
+ *
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal with the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimers.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimers in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the names of Automated Learning Group, The National Center for
+ *    Supercomputing Applications, or University of Illinois, nor the names of
+ *    its contributors may be used to endorse or promote products derived from
+ *    this Software without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+ * CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.text.stemming;
+
+/**
+ * A thread-safe stemming service that can be shared by all the threads
+ * of a pipeline (for example the workers of an ExecutorService).
+ *
+ * The underlying stemmers keep mutable state, so every thread that uses
+ * this service lazily gets its own stemmer instance; no locking happens
+ * on the stemming path, which lets throughput scale with the number of
+ * threads.
+ */
+public abstract class ConcurrentStemmingService implements StemmingService
+{
+
+	private final ThreadLocal<StemmingService> stemmers = new ThreadLocal<StemmingService>() {
+		@Override
+		protected StemmingService initialValue()
+		{
+			return createStemmingService();
+		}
+	};
+
+	/**
+	 * Creates the stemming service used by the calling thread.
+	 *
+	 * @return A new, thread-confined stemming service
+	 */
+	protected abstract StemmingService createStemmingService();
+
+	public String getStem(String fromThisWord)
+	{
+		return stemmers.get().getStem(fromThisWord);
+	}
+
+	public String[] stemAll(String[] tokens)
+	{
+		return stemmers.get().stemAll(tokens);
+	}
+
+	/**
+	 * Creates a thread-safe Porter stemming service
+	 *
+	 * @return The stemming service
+	 */
+	public static ConcurrentStemmingService newPorterStemmingService()
+	{
+		return new ConcurrentStemmingService() {
+			@Override
+			protected StemmingService createStemmingService()
+			{
+				return new PorterStemmingService();
+			}
+		};
+	}
+
+	/**
+	 * Creates a thread-safe Snowball stemming service
+	 *
+	 * @param language The language (has to exist in org/tartarus/snowball/ext)
+	 * @return The stemming service
+	 * @throws RuntimeException Thrown if no stemmer exists for the language
+	 */
+	public static ConcurrentStemmingService newSnowballStemmingService(final String language)
+	{
+		// fail early (on the calling thread) if the language is not supported
+		new SnowballStemmingService(language);
+
+		return new ConcurrentStemmingService() {
+			@Override
+			protected StemmingService createStemmingService()
+			{
+				return new SnowballStemmingService(language);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,139 @@
+/**
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, Board of Trustees-University of Illinois.
+ * All rights reserved.
+ *
+ * Developed by:
+ *
+ * Automated Learning Group
+ * National Center for Supercomputing Applications
+ * http://www.seasr.org
+ *
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal with the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimers.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimers in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the names of Automated Learning Group, The National Center for
+ *    Supercomputing Applications, or University of Illinois, nor the names of
+ *    its contributors may be used to endorse or promote products derived from
+ *    this Software without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+ * CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.text.stemming;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stems a stream of tokens written in different languages by routing
+ * every token to the Snowball stemmer of its language.  One stemmer is
+ * created per language on first use and then reused, so no reflection
+ * happens per document or per token.
+ *
+ * Like the services it routes to, this class is not thread-safe.
+ */
+public class MultilingualStemmingService
+{
+
+	private final String defaultLanguage;
+	private final Map<String, SnowballStemmingService> stemmers =
+		new HashMap<String, SnowballStemmingService>();
+
+	public MultilingualStemmingService()
+	{
+		this("english");
+	}
+
+	/**
+	 * @param defaultLanguage The language assumed for tokens with no language
+	 */
+	public MultilingualStemmingService(String defaultLanguage)
+	{
+		this.defaultLanguage = defaultLanguage;
+	}
+
+	/**
+	 * Returns the stem of a word
+	 *
+	 * @param fromThisWord The word
+	 * @param language The language of the word, or null for the default language
+	 * @return The stem
+	 * @throws RuntimeException Thrown if no stemmer exists for the language
+	 */
+	public String getStem(String fromThisWord, String language)
+	{
+		return getStemmingService(language).getStem(fromThisWord);
+	}
+
+	/**
+	 * Stems an array of tokens in place
+	 *
+	 * @param tokens The tokens to stem; each entry is replaced by its stem
+	 * @param languages The language of each token (null entries use the default language)
+	 * @return The same tokens array, now holding the stems
+	 * @throws RuntimeException Thrown if no stemmer exists for one of the languages
+	 */
+	public String[] stemAll(String[] tokens, String[] languages)
+	{
+		if (languages.length != tokens.length) {
+			throw new IllegalArgumentException("expected " + tokens.length + " languages, got " + languages.length);
+		}
+
+		SnowballStemmingService stemmer = null;
+		String stemmerLanguage = null;
+
+		for (int t = 0; t < tokens.length; t++) {
+			String language = (languages[t] != null) ? languages[t] : defaultLanguage;
+			// consecutive tokens are usually in the same language
+			if (stemmer == null || !language.equals(stemmerLanguage)) {
+				stemmer = getStemmingService(language);
+				stemmerLanguage = language;
+			}
+			tokens[t] = stemmer.getStem(tokens[t]);
+		}
+		return tokens;
+	}
+
+	/**
+	 * Returns the stemming service used for a language
+	 *
+	 * @param language The language, or null for the default language
+	 * @return The stemming service
+	 * @throws RuntimeException Thrown if no stemmer exists for the language
+	 */
+	public SnowballStemmingService getStemmingService(String language)
+	{
+		if (language == null) {
+			language = defaultLanguage;
+		}
+
+		SnowballStemmingService stemmer = stemmers.get(language);
+		if (stemmer == null) {
+			stemmer = new SnowballStemmingService(language);
+			stemmers.put(language, stemmer);
+		}
+		return stemmer;
+	}
+
+}
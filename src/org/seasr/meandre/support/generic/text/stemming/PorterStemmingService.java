@@ -47,13 +47,17 @@ import java.io.*;
 
 
 
-public class PorterStemmingService {
+public class PorterStemmingService implements StemmingService {
 	
 	Stemmer stemmer;
 	
+	/* scratch buffer reused by stemAll(), grown on demand */
+	char[] buffer;
+	
 	public PorterStemmingService()
 	{
 		 this.stemmer = new Stemmer();
+		 this.buffer = new char[64];
 	}
 	
 	public String getStem(String fromThisWord) 
@@ -63,16 +67,100 @@ public class PorterStemmingService {
 		}
 		
 		String lower = fromThisWord.toLowerCase();
-		char[] ch = lower.toCharArray();
 		// all is golden
-		for (char c : ch) {
-			stemmer.add(c);
+		for (int i = 0, iMax = lower.length(); i < iMax; i++) {
+			stemmer.add(lower.charAt(i));
 		}
 		stemmer.stem();
 		return stemmer.toString();
 	}
 	
+	/**
+	 * Stems the word found in a region of a character buffer, in place.
+	 * The region is lowercased and then overwritten with the stem, which
+	 * always starts at <code>offset</code> and is never longer than the
+	 * original word.  Regions that contain non-letters are left untouched.
+	 * 
+	 * @param word The buffer holding the word
+	 * @param offset The offset of the first character of the word
+	 * @param length The number of characters in the word
+	 * @return The length of the stem written at <code>offset</code>
+	 */
+	public int stem(char[] word, int offset, int length)
+	{
+		if (! StringUtilities.isAllLetters(word, offset, length)) {
+			return length;
+		}
+		
+		for (int i = offset, iMax = offset + length; i < iMax; i++) {
+			word[i] = Character.toLowerCase(word[i]);
+		}
+		stemmer.add(word, offset, length);
+		stemmer.stem();
+		
+		int stemLength = stemmer.getResultLength();
+		System.arraycopy(stemmer.getResultBuffer(), 0, word, offset, stemLength);
+		
+		return stemLength;
+	}
+	
+	/**
+	 * Stems the word found between <code>start</code> (inclusive) and
+	 * <code>end</code> (exclusive) of a character sequence.  The stem is
+	 * written to <code>dest</code> starting at <code>destOffset</code>;
+	 * the caller must provide room for <code>end - start</code> characters.
+	 * 
+	 * @param word The sequence holding the word
+	 * @param start The start of the word
+	 * @param end The end of the word
+	 * @param dest The buffer receiving the stem
+	 * @param destOffset The offset in dest where to write the stem
+	 * @return The length of the stem written at <code>destOffset</code>
+	 */
+	public int stem(CharSequence word, int start, int end, char[] dest, int destOffset)
+	{
+		for (int i = start, j = destOffset; i < end; i++, j++) {
+			dest[j] = word.charAt(i);
+		}
+		return stem(dest, destOffset, end - start);
+	}
+	
+	/**
+	 * Stems an array of tokens in place, reusing a single internal buffer.
+	 * Tokens whose stem is identical to the token itself are kept as-is,
+	 * so no new String is created for them.
+	 * 
+	 * @param tokens The tokens to stem; each entry is replaced by its stem
+	 * @return The same array, now holding the stems
+	 */
+	public String[] stemAll(String[] tokens)
+	{
+		for (int t = 0; t < tokens.length; t++) {
+			String token = tokens[t];
+			int length = token.length();
+			
+			if (length > buffer.length) {
+				buffer = new char[Math.max(length, 2 * buffer.length)];
+			}
+			token.getChars(0, length, buffer, 0);
+			
+			int stemLength = stem(buffer, 0, length);
+			if (stemLength != length || ! sameChars(token, buffer, stemLength)) {
+				tokens[t] = new String(buffer, 0, stemLength);
+			}
+		}
+		return tokens;
+	}
 	
+	private static boolean sameChars(String s, char[] ch, int length)
+	{
+		for (int i = 0; i < length; i++) {
+			if (s.charAt(i) != ch[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
 
 }
 
@@ -171,6 +259,20 @@ public void add(char[] w, int wLen)
    for (int c = 0; c < wLen; c++) b[i++] = w[c];
 }
 
+/** Adds len characters starting at off in w to the word being stemmed.
+ * Like add(char[] w, int wLen), but for an arbitrary region of w.
+ */
+
+public void add(char[] w, int off, int len)
+{  if (i+len > b.length)
+   {  char[] new_b = new char[i+len+INC];
+      System.arraycopy(b, 0, new_b, 0, i);
+      b = new_b;
+   }
+   System.arraycopy(w, off, b, i, len);
+   i += len;
+}
+
 /**
  * After a word has been stemmed, it can be retrieved by toString(),
  * or a reference to the internal buffer can be retrieved by getResultBuffer
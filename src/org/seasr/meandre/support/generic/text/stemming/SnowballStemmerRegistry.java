@@ -0,0 +1,110 @@
+/**
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, Board of Trustees-University of Illinois.
+ * All rights reserved.
+ *
+ * Developed by:
+ *
+ * Automated Learning Group
+ * National Center for Supercomputing Applications
+ * http://www.seasr.org
+ *
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal with the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimers.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimers in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ *  * Neither the names of Automated Learning Group, The National Center for
+ *    Supercomputing Applications, or University of Illinois, nor the names of
+ *    its contributors may be used to endorse or promote products derived from
+ *    this Software without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+ * CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.text.stemming;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.tartarus.snowball.SnowballStemmer;
+
+/**
+ * Resolves the Snowball stemmer class for a language once and caches it,
+ * so that creating stemmers for an already seen language does not go
+ * through Class.forName again.
+ */
+public class SnowballStemmerRegistry
+{
+
+	private static final ConcurrentMap<String, Class<? extends SnowballStemmer>> stemmerClasses =
+		new ConcurrentHashMap<String, Class<? extends SnowballStemmer>>();
+
+	protected SnowballStemmerRegistry()
+	{
+
+	}
+
+	/**
+	 * Returns the stemmer class for a language
+	 *
+	 * @param language The language (has to exist in org/tartarus/snowball/ext)
+	 * @return The stemmer class
+	 * @throws RuntimeException Thrown if no stemmer exists for the language
+	 */
+	public static Class<? extends SnowballStemmer> getStemmerClass(String language)
+	{
+		Class<? extends SnowballStemmer> stemClass = stemmerClasses.get(language);
+		if (stemClass != null) {
+			return stemClass;
+		}
+
+		String path = "org.tartarus.snowball.ext." + language + "Stemmer";
+		try {
+			stemClass = Class.forName(path).asSubclass(SnowballStemmer.class);
+		}
+		catch (Exception e) {
+			throw new RuntimeException("unable to open path " + path);
+		}
+
+		Class<? extends SnowballStemmer> existing = stemmerClasses.putIfAbsent(language, stemClass);
+		return (existing != null) ? existing : stemClass;
+	}
+
+	/**
+	 * Creates a new stemmer for a language
+	 *
+	 * @param language The language (has to exist in org/tartarus/snowball/ext)
+	 * @return The stemmer
+	 * @throws RuntimeException Thrown if no stemmer exists for the language
+	 */
+	public static SnowballStemmer newStemmer(String language)
+	{
+		Class<? extends SnowballStemmer> stemClass = getStemmerClass(language);
+		try {
+			return stemClass.newInstance();
+		}
+		catch (Exception e) {
+			throw new RuntimeException("unable to instantiate " + stemClass.getName());
+		}
+	}
+
+}
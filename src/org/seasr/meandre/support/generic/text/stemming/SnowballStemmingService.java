@@ -58,7 +58,7 @@ import org.tartarus.snowball.SnowballStemmer;
  */
 
 
-public class SnowballStemmingService
+public class SnowballStemmingService implements StemmingService
 {
 
 	/* language has to exist in org/tartarus/snowball/ext
@@ -73,15 +73,7 @@ public class SnowballStemmingService
 
 	public SnowballStemmingService(String language)
 	{
-		String path = language;
-		try {
-			path = "org.tartarus.snowball.ext." + language + "Stemmer";
-			Class<?> stemClass = Class.forName(path);
-		    this.stemmer = (SnowballStemmer) stemClass.newInstance();
-		}
-		catch (Exception e) {
-			throw new RuntimeException("unable to open path " + path);
-		}
+		this.stemmer = SnowballStemmerRegistry.newStemmer(language);
 	}
 
 	public String getStem(String fromThisWord)
@@ -96,4 +88,12 @@ public class SnowballStemmingService
         return stemmer.getCurrent();
 	}
 
+	public String[] stemAll(String[] tokens)
+	{
+		for (int t = 0; t < tokens.length; t++) {
+			tokens[t] = getStem(tokens[t]);
+		}
+		return tokens;
+	}
+
 }
@@ -44,19 +44,63 @@ package org.seasr.meandre.support.generic.text.stemming;
 
 public class StringUtilities {
 	
+	/* ASCII_LETTERS[c] is true <=> c is an ASCII letter */
+	private static final boolean[] ASCII_LETTERS = new boolean[128];
+	
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			ASCII_LETTERS[c] = true;
+			ASCII_LETTERS[Character.toUpperCase(c)] = true;
+		}
+	}
+	
 	protected StringUtilities()
 	{
 		
 	}
 	
+	/**
+	 * Same as Character.isLetter(c), answered from a lookup table for ASCII
+	 * characters and delegated to Character.isLetter for the rest.
+	 */
+	public static boolean isLetter(char c)
+	{
+		return (c < 128) ? ASCII_LETTERS[c] : Character.isLetter(c);
+	}
+	
 	public static boolean isAllLetters(String text) 
 	{
-		//
-		// TODO: time if Pattern/Match is faster
-		//
-		char[] ch = text.toCharArray();
-		for (char c : ch) {
-			if (!Character.isLetter(c)) {
+		for (int i = 0, iMax = text.length(); i < iMax; i++) {
+			if (!isLetter(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public static boolean isAllLetters(CharSequence text)
+	{
+		return isAllLetters(text, 0, text.length());
+	}
+	
+	/**
+	 * Checks whether all the characters between <code>start</code> (inclusive)
+	 * and <code>end</code> (exclusive) of a character sequence are letters
+	 */
+	public static boolean isAllLetters(CharSequence text, int start, int end)
+	{
+		for (int i = start; i < end; i++) {
+			if (!isLetter(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public static boolean isAllLetters(char[] text, int offset, int length)
+	{
+		for (int i = offset, iMax = offset + length; i < iMax; i++) {
+			if (!isLetter(text[i])) {
 				return false;
 			}
 		}
@@ -0,0 +1,281 @@
+/*
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, NCSA.  All rights reserved.
+ *
+ * Developed by:
+ * The Automated Learning Group
+ * University of Illinois at Urbana-Champaign
+ * http://www.seasr.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal with the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ *
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimers.
+ *
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimers in
+ * the documentation and/or other materials provided with the distribution.
+ *
+ * Neither the names of The Automated Learning Group, University of
+ * Illinois at Urbana-Champaign, nor the names of its contributors may
+ * be used to endorse or promote products derived from this Software
+ * without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread-safe cache with least-recently-used eviction.
+ *
+ * The cache is split into independently locked segments (selected by key hash) so that
+ * concurrent readers rarely contend; each segment evicts its own least recently used entry
+ * once it exceeds its share of the maximum size.  Hit, miss and eviction counters are kept
+ * to help size the cache for a given workload.
+ *
+ * By default every entry counts as one towards the maximum size.  Subclasses can override
+ * {@link #weigh(Object, Object)} to bound the cache by another measure, such as the memory
+ * used by the values; the maximum size is then the maximum total weight.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+
+public class BoundedCache<K,V> {
+
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private final Segment<K,V>[] _segments;
+    private final int _maxSize;
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _misses = new AtomicLong();
+    private final AtomicLong _evictions = new AtomicLong();
+
+    /**
+     * Creates a cache holding at most maxSize entries
+     *
+     * @param maxSize The maximum number of entries
+     */
+    public BoundedCache(int maxSize) {
+        this(maxSize, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a cache holding at most maxSize entries
+     *
+     * @param maxSize The maximum number of entries
+     * @param concurrencyLevel The estimated number of concurrently accessing threads
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int maxSize, int concurrencyLevel) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("" + maxSize);
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException("" + concurrencyLevel);
+
+        int nSegments = 1;
+        while (nSegments < concurrencyLevel && nSegments * 2 <= maxSize)
+            nSegments <<= 1;
+
+        // spread the capacity so that the segment sizes add up to exactly maxSize
+        int segmentSize = maxSize / nSegments;
+        int remainder = maxSize % nSegments;
+
+        _maxSize = maxSize;
+        _segments = (Segment<K,V>[]) new Segment<?,?>[nSegments];
+        for (int i = 0; i < nSegments; i++)
+            _segments[i] = new Segment<K,V>(segmentSize + ((i < remainder) ? 1 : 0));
+    }
+
+    /**
+     * Returns the value associated with a key
+     *
+     * @param key The key
+     * @return The cached value, or null if the key is not in the cache
+     */
+    public V get(K key) {
+        Segment<K,V> segment = segmentFor(key);
+        V value;
+
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+
+        if (value != null)
+            _hits.incrementAndGet();
+        else
+            _misses.incrementAndGet();
+
+        return value;
+    }
+
+    /**
+     * Adds an entry to the cache, evicting the least recently used entries of its segment if needed.
+     * Values weighing more than the share of the maximum size of a segment are not cached.
+     *
+     * @param key The key
+     * @param value The value (cannot be null)
+     */
+    public void put(K key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+
+        long weight = weigh(key, value);
+        Segment<K,V> segment = segmentFor(key);
+
+        synchronized (segment) {
+            V old = (weight <= segment._capacity) ? segment.put(key, value) : segment.remove(key);
+            if (weight <= segment._capacity)
+                segment._weight += weight;
+            if (old != null)
+                segment._weight -= weigh(key, old);
+
+            // the entry just added is the most recently used, so it is never the one evicted
+            for (Iterator<Map.Entry<K,V>> it = segment.entrySet().iterator();
+                    segment._weight > segment._capacity && it.hasNext(); ) {
+                Map.Entry<K,V> eldest = it.next();
+                segment._weight -= weigh(eldest.getKey(), eldest.getValue());
+                it.remove();
+                _evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the weight of an entry, counted towards the maximum size of the cache.
+     * The weight of an entry must not change while it is in the cache.
+     *
+     * @param key The key
+     * @param value The value
+     * @return The weight of the entry (1 unless overridden)
+     */
+    protected long weigh(K key, V value) {
+        return 1;
+    }
+
+    /**
+     * @return The number of entries currently in the cache
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K,V> segment : _segments)
+            synchronized (segment) {
+                size += segment.size();
+            }
+
+        return size;
+    }
+
+    /**
+     * @return The total weight of the entries currently in the cache (their number unless
+     *         {@link #weigh(Object, Object)} is overridden)
+     */
+    public long getWeight() {
+        long weight = 0;
+        for (Segment<K,V> segment : _segments)
+            synchronized (segment) {
+                weight += segment._weight;
+            }
+
+        return weight;
+    }
+
+    /**
+     * @return The maximum number of entries the cache can hold (or their maximum total weight)
+     */
+    public int getMaxSize() {
+        return _maxSize;
+    }
+
+    /**
+     * Removes all entries from the cache (the statistics are not reset)
+     */
+    public void clear() {
+        for (Segment<K,V> segment : _segments)
+            synchronized (segment) {
+                segment.clear();
+                segment._weight = 0;
+            }
+    }
+
+    public long getHitCount() {
+        return _hits.get();
+    }
+
+    public long getMissCount() {
+        return _misses.get();
+    }
+
+    public long getEvictionCount() {
+        return _evictions.get();
+    }
+
+    /**
+     * @return The fraction of lookups that were hits, or 0 if no lookups were made
+     */
+    public double getHitRate() {
+        long hits = _hits.get();
+        long total = hits + _misses.get();
+
+        return (total == 0) ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters
+     */
+    public void resetStatistics() {
+        _hits.set(0);
+        _misses.set(0);
+        _evictions.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BoundedCache[size=%d, weight=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.3f]",
+                size(), getWeight(), _maxSize, getHitCount(), getMissCount(), getEvictionCount(), getHitRate());
+    }
+
+    private Segment<K,V> segmentFor(Object key) {
+        // spread the hash so that keys differing only in the high bits use different segments
+        int h = key.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+
+        return _segments[h & (_segments.length - 1)];
+    }
+
+    //--------------------------------------------------------------------------------------------
+
+    private static class Segment<K,V> extends LinkedHashMap<K,V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int _capacity;
+        private long _weight;
+
+        public Segment(int capacity) {
+            super(16, 0.75f, true);
+
+            _capacity = capacity;
+        }
+    }
+}
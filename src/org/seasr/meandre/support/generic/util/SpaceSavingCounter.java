@@ -0,0 +1,283 @@
+/*
+ * University of Illinois/NCSA
+ * Open Source License
+ *
+ * Copyright (c) 2008, NCSA.  All rights reserved.
+ *
+ * Developed by:
+ * The Automated Learning Group
+ * University of Illinois at Urbana-Champaign
+ * http://www.seasr.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal with the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject
+ * to the following conditions:
+ *
+ * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimers.
+ *
+ * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimers in
+ * the documentation and/or other materials provided with the distribution.
+ *
+ * Neither the names of The Automated Learning Group, University of
+ * Illinois at Urbana-Champaign, nor the names of its contributors may
+ * be used to endorse or promote products derived from this Software
+ * without specific prior written permission.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE CONTRIBUTORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS WITH THE SOFTWARE.
+ */
+
+package org.seasr.meandre.support.generic.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe counter of the most frequent items in a stream, using bounded memory
+ * (the Space-Saving algorithm of Metwally, Agrawal and El Abbadi).
+ *
+ * At most capacity items are monitored. When a new item arrives and the counter is full,
+ * it replaces the item with the lowest count and inherits that count (recorded as its error).
+ * Counts therefore never underestimate, overestimate by at most getError(item), and any item
+ * occurring more than getTotal() / capacity times is guaranteed to be monitored.
+ *
+ * The counts are kept in primitive arrays, ordered by a min-heap of slot indices.
+ *
+ * @param <K> Item type
+ */
+
+public class SpaceSavingCounter<K> {
+
+    private final int _capacity;
+    private final Map<K, Integer> _slots;
+    private final Object[] _items;
+    private final long[] _counts;
+    private final long[] _errors;
+    private final int[] _heap;       // slot indices, ordered by count
+    private final int[] _heapIndex;  // position of each slot in the heap
+    private int _size;
+    private long _total;
+
+    /**
+     * Creates a counter monitoring at most capacity items
+     *
+     * @param capacity The maximum number of items monitored
+     */
+    public SpaceSavingCounter(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("" + capacity);
+
+        _capacity = capacity;
+        _slots = new HashMap<K, Integer>(capacity * 4 / 3 + 1);
+        _items = new Object[capacity];
+        _counts = new long[capacity];
+        _errors = new long[capacity];
+        _heap = new int[capacity];
+        _heapIndex = new int[capacity];
+    }
+
+    /**
+     * Counts one occurrence of an item
+     *
+     * @param item The item
+     */
+    public void add(K item) {
+        add(item, 1);
+    }
+
+    /**
+     * Counts occurrences of an item
+     *
+     * @param item The item
+     * @param count The number of occurrences (must be positive)
+     */
+    public synchronized void add(K item, long count) {
+        if (item == null)
+            throw new NullPointerException();
+        if (count <= 0)
+            throw new IllegalArgumentException("" + count);
+
+        _total += count;
+
+        Integer slot = _slots.get(item);
+        if (slot != null) {
+            _counts[slot] += count;
+            siftDown(_heapIndex[slot]);
+            return;
+        }
+
+        if (_size < _capacity) {
+            int s = _size++;
+            _items[s] = item;
+            _counts[s] = count;
+            _errors[s] = 0;
+            _heap[s] = s;
+            _heapIndex[s] = s;
+            siftUp(s);
+            _slots.put(item, s);
+            return;
+        }
+
+        // replace the item with the lowest count
+        int s = _heap[0];
+        _slots.remove(_items[s]);
+        _items[s] = item;
+        _errors[s] = _counts[s];
+        _counts[s] += count;
+        siftDown(0);
+        _slots.put(item, s);
+    }
+
+    /**
+     * Returns the (over)estimated count of an item
+     *
+     * @param item The item
+     * @return The count, or 0 if the item is not monitored
+     */
+    public synchronized long getCount(K item) {
+        Integer slot = _slots.get(item);
+        return (slot != null) ? _counts[slot] : 0;
+    }
+
+    /**
+     * Returns the maximum overestimation of the count of an item
+     *
+     * @param item The item
+     * @return The error bound, or 0 if the item is not monitored
+     */
+    public synchronized long getError(K item) {
+        Integer slot = _slots.get(item);
+        return (slot != null) ? _errors[slot] : 0;
+    }
+
+    /**
+     * Returns a snapshot of the monitored items and their counts
+     *
+     * @return The items mapped to their counts, in descending count order
+     */
+    public Map<K, Long> getCounts() {
+        return getTopCounts(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a snapshot of the most frequent monitored items and their counts
+     *
+     * @param k The maximum number of items returned
+     * @return The items mapped to their counts, in descending count order
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized Map<K, Long> getTopCounts(int k) {
+        int n = Math.min(k, _size);
+
+        // repeatedly extracting the minimum from a copy of the heap yields ascending counts
+        int[] heap = new int[_size];
+        System.arraycopy(_heap, 0, heap, 0, _size);
+        int[] ascending = new int[_size];
+        for (int size = _size; size > 0; size--) {
+            ascending[_size - size] = heap[0];
+            heap[0] = heap[size - 1];
+            siftDown(heap, 0, size - 1);
+        }
+
+        Map<K, Long> counts = new LinkedHashMap<K, Long>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            int s = ascending[_size - 1 - i];
+            counts.put((K) _items[s], _counts[s]);
+        }
+
+        return counts;
+    }
+
+    /**
+     * @return The number of items currently monitored
+     */
+    public synchronized int size() {
+        return _size;
+    }
+
+    /**
+     * @return The maximum number of items monitored
+     */
+    public int getCapacity() {
+        return _capacity;
+    }
+
+    /**
+     * @return The total number of occurrences counted
+     */
+    public synchronized long getTotal() {
+        return _total;
+    }
+
+    /**
+     * Removes all items and resets the total
+     */
+    public synchronized void clear() {
+        _slots.clear();
+        for (int i = 0; i < _size; i++)
+            _items[i] = null;
+        _size = 0;
+        _total = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SpaceSavingCounter[size=%d/%d, total=%d]", _size, _capacity, _total);
+    }
+
+    private void siftUp(int i) {
+        int slot = _heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (_counts[_heap[parent]] <= _counts[slot])
+                break;
+            _heap[i] = _heap[parent];
+            _heapIndex[_heap[i]] = i;
+            i = parent;
+        }
+        _heap[i] = slot;
+        _heapIndex[slot] = i;
+    }
+
+    private void siftDown(int i) {
+        int slot = _heap[i];
+        int child;
+        while ((child = 2 * i + 1) < _size) {
+            if (child + 1 < _size && _counts[_heap[child + 1]] < _counts[_heap[child]])
+                child++;
+            if (_counts[slot] <= _counts[_heap[child]])
+                break;
+            _heap[i] = _heap[child];
+            _heapIndex[_heap[i]] = i;
+            i = child;
+        }
+        _heap[i] = slot;
+        _heapIndex[slot] = i;
+    }
+
+    private void siftDown(int[] heap, int i, int size) {
+        int slot = heap[i];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && _counts[heap[child + 1]] < _counts[heap[child]])
+                child++;
+            if (_counts[slot] <= _counts[heap[child]])
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = slot;
+    }
+}